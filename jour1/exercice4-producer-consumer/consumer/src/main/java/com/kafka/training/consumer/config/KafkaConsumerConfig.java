@@ -3,6 +3,7 @@ package com.kafka.training.consumer.config;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.kafka.training.consumer.model.Message;
+import com.kafka.training.consumer.service.OffsetCheckpointStore;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
 import org.apache.kafka.common.serialization.StringDeserializer;
@@ -11,6 +12,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 
+import java.nio.file.Path;
 import java.util.Properties;
 
 @Configuration
@@ -19,6 +21,9 @@ public class KafkaConsumerConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    @Value("${kafka.consumer.partition-refresh-interval-ms:30000}")
+    private long partitionRefreshIntervalMs;
+
     @Bean
     public KafkaConsumer<String, Message> kafkaConsumer() {
         Properties props = new Properties();
@@ -30,6 +35,10 @@ public class KafkaConsumerConfig {
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
         props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class.getName());
 
+        // partitionsFor() lit les métadonnées en cache : on les rafraîchit au rythme
+        // de la découverte des partitions (5 minutes par défaut)
+        props.put(ConsumerConfig.METADATA_MAX_AGE_CONFIG, (int) partitionRefreshIntervalMs);
+
         // IMPORTANT: Consumer STANDALONE - Pas de group.id
         // On va utiliser assign() au lieu de subscribe()
 
@@ -41,6 +50,16 @@ public class KafkaConsumerConfig {
         return new KafkaConsumer<>(props, new StringDeserializer(), jsonDeserializer);
     }
 
+    /**
+     * Checkpoint des offsets traités (consumer standalone : pas de commit dans Kafka)
+     */
+    @Bean
+    public OffsetCheckpointStore offsetCheckpointStore(
+            @Value("${kafka.consumer.checkpoint.dir:checkpoints}") String directory,
+            @Value("${kafka.consumer.topic:messages}") String topic) {
+        return new OffsetCheckpointStore(Path.of(directory), topic);
+    }
+
     @Bean
     public ObjectMapper objectMapper() {
         ObjectMapper mapper = new ObjectMapper();
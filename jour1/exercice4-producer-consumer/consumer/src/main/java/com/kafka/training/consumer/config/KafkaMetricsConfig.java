@@ -0,0 +1,33 @@
+package com.kafka.training.consumer.config;
+
+import com.kafka.training.consumer.metrics.ConsumerMetrics;
+import com.kafka.training.consumer.model.Message;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.kafka.KafkaClientMetrics;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class KafkaMetricsConfig {
+
+    /**
+     * Métriques du client Kafka (kafka_consumer_*) : fetch, records-lag, time-between-poll...
+     * Le KafkaConsumer est créé directement (pas de ConsumerFactory) : on le lie au registre.
+     */
+    @Bean
+    public KafkaClientMetrics kafkaClientMetrics(MeterRegistry meterRegistry,
+                                                 KafkaConsumer<String, Message> kafkaConsumer) {
+        KafkaClientMetrics metrics = new KafkaClientMetrics(kafkaConsumer);
+        metrics.bindTo(meterRegistry);
+        return metrics;
+    }
+
+    /**
+     * Lag (checkpoint vs fin du log), débit et latence poll → traitement par partition
+     */
+    @Bean
+    public ConsumerMetrics consumerMetrics(MeterRegistry meterRegistry) {
+        return new ConsumerMetrics(meterRegistry);
+    }
+}
@@ -0,0 +1,38 @@
+package com.kafka.training.consumer.controller;
+
+import com.kafka.training.consumer.metrics.ConsumerMetrics;
+import com.kafka.training.consumer.model.ConsumerStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Vue JSON des métriques de consommation (les mêmes valeurs sont exposées dans
+ * /actuator/prometheus)
+ */
+@RestController
+@RequestMapping("/api/consumer")
+public class ConsumerStatsController {
+
+    private final ConsumerMetrics metrics;
+
+    @Value("${spring.application.name}")
+    private String applicationName;
+
+    public ConsumerStatsController(ConsumerMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Lag, débit et latences par partition
+     * GET /api/consumer/stats
+     */
+    @GetMapping("/stats")
+    public ConsumerStats stats() {
+        ConsumerStats stats = metrics.snapshot();
+        stats.setApplication(applicationName);
+        stats.setMode("standalone");
+        return stats;
+    }
+}
@@ -1,20 +1,30 @@
 package com.kafka.training.consumer.service;
 
+import com.kafka.training.consumer.metrics.ConsumerMetrics;
 import com.kafka.training.consumer.model.Message;
+import com.kafka.training.consumer.trace.RecordTracer;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.common.PartitionInfo;
 import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class MessageConsumerService {
@@ -24,14 +34,60 @@ public class MessageConsumerService {
     @Value("${kafka.consumer.topic:messages}")
     private String topic;
 
-    @Value("${kafka.consumer.partitions:4}")
-    private int partitionCount;
+    /**
+     * Intervalle de redécouverte des partitions (partitionsFor) pour prendre en compte
+     * les partitions ajoutées au topic pendant l'exécution
+     */
+    @Value("${kafka.consumer.partition-refresh-interval-ms:30000}")
+    private long partitionRefreshIntervalMs;
+
+    /**
+     * Au-delà de max-backlog messages en attente dans un worker, sa partition est mise
+     * en pause ; elle reprend quand le worker est redescendu à resume-backlog
+     */
+    @Value("${kafka.consumer.worker.max-backlog:1000}")
+    private int maxBacklog;
+
+    @Value("${kafka.consumer.worker.resume-backlog:100}")
+    private int resumeBacklog;
+
+    /**
+     * Position de départ : checkpoint (reprise, défaut), beginning, end ou timestamp
+     */
+    @Value("${kafka.consumer.start-from:checkpoint}")
+    private String startFrom;
+
+    /**
+     * Pour start-from=timestamp : ISO-8601 (2024-01-15T10:00:00Z) ou epoch en millisecondes
+     */
+    @Value("${kafka.consumer.start-timestamp:}")
+    private String startTimestamp;
+
+    @Value("${kafka.consumer.checkpoint.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    @Value("${kafka.consumer.processing-time-ms:100}")
+    private long processingTimeMs;
+
+    @Value("${kafka.consumer.metrics.interval-ms:10000}")
+    private long metricsIntervalMs;
 
     private final KafkaConsumer<String, Message> consumer;
+    private final OffsetCheckpointStore checkpoints;
+    private final RecordTracer tracer;
+    private final ThroughputReporter throughput;
+    private final ConsumerMetrics metrics;
+    private final Map<TopicPartition, PartitionWorker> workers = new LinkedHashMap<>();
     private volatile boolean running = true;
+    private Thread consumerThread;
 
-    public MessageConsumerService(KafkaConsumer<String, Message> consumer) {
+    public MessageConsumerService(KafkaConsumer<String, Message> consumer, OffsetCheckpointStore checkpoints,
+                                  RecordTracer tracer, ThroughputReporter throughput, ConsumerMetrics metrics) {
         this.consumer = consumer;
+        this.checkpoints = checkpoints;
+        this.tracer = tracer;
+        this.throughput = throughput;
+        this.metrics = metrics;
     }
 
     /**
@@ -41,46 +97,70 @@ public class MessageConsumerService {
      */
     @PostConstruct
     public void startConsuming() {
-        // Créer un thread séparé pour la consommation
-        Thread consumerThread = new Thread(() -> {
+        // Thread de poll : seul propriétaire du KafkaConsumer (non thread-safe).
+        // Le traitement est délégué à un worker par partition.
+        consumerThread = new Thread(() -> {
             try {
-                // Construire dynamiquement la liste des partitions
-                List<TopicPartition> partitions = new ArrayList<>();
-                for (int i = 0; i < partitionCount; i++) {
-                    partitions.add(new TopicPartition(topic, i));
-                }
+                // Découvrir les partitions du topic auprès du cluster
+                List<TopicPartition> partitions = discoverPartitions();
 
                 log.info("📋 Configuration du consumer:");
                 log.info("   Topic: {}", topic);
-                log.info("   Nombre de partitions: {}", partitionCount);
+                log.info("   Nombre de partitions: {}", partitions.size());
 
                 consumer.assign(partitions);
 
-                // Commencer au début (équivalent de earliest)
-                consumer.seekToBeginning(partitions);
+                // Pas de consumer group : c'est à nous de choisir la position de départ
+                seekStartPositions(partitions);
+                partitions.forEach(this::startWorker);
+                metrics.partitionsAssigned(partitions);
 
                 log.info("🚀 Consumer standalone démarré");
                 log.info("📌 Partitions assignées: {}", partitions);
 
+                long lastFlush = System.currentTimeMillis();
+                long lastRefresh = System.currentTimeMillis();
+                long lastLagUpdate = 0;
+
                 // Boucle infinie de consommation
                 while (running) {
                     ConsumerRecords<String, Message> records = consumer.poll(Duration.ofMillis(1000));
 
-                    for (ConsumerRecord<String, Message> record : records) {
-                        log.info("═══════════════════════════════════════════════════════");
-                        log.info("📩 Message reçu du topic 'messages'");
-                        log.info("   Partition: {}", record.partition());
-                        log.info("   Offset: {}", record.offset());
-                        log.info("   Key: {}", record.key());
-                        log.info("   Message: {}", record.value());
-                        log.info("═══════════════════════════════════════════════════════");
-
-                        // Traitement du message
-                        processMessage(record.value());
+                    // Chaque retour de poll(), vide ou non : l'intervalle mesuré ne couvre jamais
+                    // une période d'inactivité entière
+                    metrics.polled();
+                    long polledAt = metrics.lastPollNanos();
+                    for (TopicPartition partition : records.partitions()) {
+                        workers.get(partition).submit(records.records(partition), polledAt);
+                    }
+                    applyBackpressure();
+
+                    long now = System.currentTimeMillis();
+                    if (now - lastRefresh >= partitionRefreshIntervalMs) {
+                        assignNewPartitions();
+                        lastRefresh = now;
+                    }
+                    if (now - lastFlush >= flushIntervalMs) {
+                        checkpointWorkers();
+                        checkpoints.flush();
+                        lastFlush = now;
+                    }
+                    if (now - lastLagUpdate >= metricsIntervalMs) {
+                        updateLag();
+                        lastLagUpdate = now;
                     }
                 }
+            } catch (WakeupException e) {
+                // Arrêt demandé par stopConsuming()
             } catch (Exception e) {
                 log.error("❌ Erreur dans le consumer", e);
+            } finally {
+                // Arrêt des workers avant le dernier checkpoint : il ne couvre que les messages traités
+                workers.values().forEach(worker -> worker.stop(5_000));
+                checkpointWorkers();
+                // Le KafkaConsumer n'est pas thread-safe : il est fermé par son propre thread
+                checkpoints.flush();
+                consumer.close();
             }
         });
 
@@ -88,13 +168,207 @@ public class MessageConsumerService {
         consumerThread.start();
     }
 
+    private List<TopicPartition> discoverPartitions() {
+        List<PartitionInfo> infos = consumer.partitionsFor(topic);
+        if (infos == null || infos.isEmpty()) {
+            throw new IllegalStateException("Topic introuvable ou sans partition : " + topic);
+        }
+        List<TopicPartition> partitions = new ArrayList<>();
+        for (PartitionInfo info : infos) {
+            partitions.add(new TopicPartition(info.topic(), info.partition()));
+        }
+        partitions.sort(Comparator.comparingInt(TopicPartition::partition));
+        return partitions;
+    }
+
+    /**
+     * Ajoute à l'assignation les partitions créées depuis le démarrage
+     * (kafka-topics --alter --partitions N). Leurs messages sont tous postérieurs
+     * au démarrage : elles sont lues depuis leur checkpoint ou depuis le début.
+     */
+    private void assignNewPartitions() {
+        List<TopicPartition> discovered = discoverPartitions();
+        List<TopicPartition> added = discovered.stream()
+                .filter(partition -> !workers.containsKey(partition))
+                .toList();
+        if (added.isEmpty()) {
+            return;
+        }
+        // assign() remplace l'assignation mais conserve la position des partitions déjà lues
+        consumer.assign(discovered);
+        seekToCheckpoints(added);
+        added.forEach(this::startWorker);
+        metrics.partitionsAssigned(added);
+        log.info("🆕 Nouvelles partitions détectées et assignées: {}", added);
+    }
+
+    private void startWorker(TopicPartition partition) {
+        PartitionWorker worker = new PartitionWorker(partition, this::handleRecord);
+        workers.put(partition, worker);
+        worker.start();
+    }
+
+    /**
+     * Met en pause les partitions dont le worker prend du retard, reprend les autres.
+     * Une partition en pause n'est plus fetchée mais sa position est conservée.
+     */
+    private void applyBackpressure() {
+        List<TopicPartition> toPause = new ArrayList<>();
+        List<TopicPartition> toResume = new ArrayList<>();
+        var paused = consumer.paused();
+        for (PartitionWorker worker : workers.values()) {
+            int backlog = worker.backlog();
+            TopicPartition partition = worker.getPartition();
+            if (!paused.contains(partition) && backlog >= maxBacklog) {
+                toPause.add(partition);
+            } else if (paused.contains(partition) && backlog <= resumeBacklog) {
+                toResume.add(partition);
+            }
+        }
+        if (!toPause.isEmpty()) {
+            consumer.pause(toPause);
+            log.info("⏸️ Partitions en pause (workers en retard): {}", toPause);
+        }
+        if (!toResume.isEmpty()) {
+            consumer.resume(toResume);
+            log.info("▶️ Reprise des partitions: {}", toResume);
+        }
+    }
+
+    /**
+     * Lag par partition : offset de fin du log moins position du checkpoint
+     */
+    private void updateLag() {
+        Map<TopicPartition, Long> end = consumer.endOffsets(workers.keySet());
+        for (PartitionWorker worker : workers.values()) {
+            TopicPartition partition = worker.getPartition();
+            Long endOffset = end.get(partition);
+            if (endOffset != null) {
+                metrics.updateOffsets(partition, checkpoints.get(partition.partition()), endOffset);
+            }
+        }
+    }
+
+    /**
+     * Reporte dans le checkpoint la progression des workers (appelé par le thread de poll,
+     * seul à écrire dans OffsetCheckpointStore)
+     */
+    private void checkpointWorkers() {
+        for (PartitionWorker worker : workers.values()) {
+            long next = worker.nextOffset();
+            if (next > 0) {
+                checkpoints.update(worker.getPartition().partition(), next);
+            }
+        }
+    }
+
+    /**
+     * Appelé par les workers. Le détail du message passe par RecordTracer
+     * (échantillonné, asynchrone) au lieu de plusieurs lignes INFO synchrones.
+     */
+    private void handleRecord(ConsumerRecord<String, Message> record, long polledAtNanos) {
+        tracer.trace(record);
+
+        // Traitement du message
+        long start = System.nanoTime();
+        processMessage(record.value());
+        metrics.recordProcessing(System.nanoTime() - start);
+        metrics.recordProcessed(record.topic(), record.partition(), polledAtNanos);
+        throughput.record();
+    }
+
+    /**
+     * Positionne chaque partition selon kafka.consumer.start-from
+     */
+    private void seekStartPositions(List<TopicPartition> partitions) {
+        switch (startFrom) {
+            case "beginning" -> {
+                consumer.seekToBeginning(partitions);
+                log.info("⏮️ Lecture depuis le début des partitions");
+            }
+            case "end" -> {
+                consumer.seekToEnd(partitions);
+                log.info("⏭️ Lecture des nouveaux messages uniquement");
+            }
+            case "timestamp" -> seekToTimestamp(partitions, parseTimestamp(startTimestamp));
+            case "checkpoint" -> seekToCheckpoints(partitions);
+            default -> throw new IllegalArgumentException("kafka.consumer.start-from inconnu : " + startFrom
+                    + " (checkpoint, beginning, end ou timestamp)");
+        }
+    }
+
+    /**
+     * Reprend au prochain offset enregistré dans le checkpoint. Un checkpoint hors de
+     * la plage disponible (messages supprimés par la rétention, topic recréé) est ignoré
+     * au profit du début de la partition.
+     */
+    private void seekToCheckpoints(List<TopicPartition> partitions) {
+        Map<TopicPartition, Long> beginning = consumer.beginningOffsets(partitions);
+        Map<TopicPartition, Long> end = consumer.endOffsets(partitions);
+
+        for (TopicPartition partition : partitions) {
+            long checkpoint = checkpoints.get(partition.partition());
+            long first = beginning.get(partition);
+            long last = end.get(partition);
+            if (checkpoint >= first && checkpoint <= last) {
+                consumer.seek(partition, checkpoint);
+                log.info("↪️ {} : reprise à l'offset {} ({} messages à rattraper)",
+                        partition, checkpoint, last - checkpoint);
+            } else {
+                consumer.seekToBeginning(List.of(partition));
+                if (checkpoint >= 0) {
+                    log.warn("⚠️ {} : checkpoint {} hors de la plage [{}, {}], lecture depuis le début",
+                            partition, checkpoint, first, last);
+                } else {
+                    log.info("⏮️ {} : pas de checkpoint, lecture depuis le début", partition);
+                }
+            }
+        }
+        log.info("💾 Checkpoints lus depuis {}", checkpoints.getFile());
+    }
+
+    /**
+     * Rejoue à partir d'un instant : offsetsForTimes renvoie, pour chaque partition, le
+     * premier offset dont le timestamp est >= à l'instant demandé
+     */
+    private void seekToTimestamp(List<TopicPartition> partitions, long timestamp) {
+        Map<TopicPartition, Long> query = new HashMap<>();
+        partitions.forEach(partition -> query.put(partition, timestamp));
+        Map<TopicPartition, OffsetAndTimestamp> offsets = consumer.offsetsForTimes(query);
+
+        for (TopicPartition partition : partitions) {
+            OffsetAndTimestamp offset = offsets.get(partition);
+            if (offset != null) {
+                consumer.seek(partition, offset.offset());
+                log.info("🕐 {} : lecture depuis l'offset {} ({})",
+                        partition, offset.offset(), Instant.ofEpochMilli(offset.timestamp()));
+            } else {
+                // Aucun message après cet instant
+                consumer.seekToEnd(List.of(partition));
+                log.info("⏭️ {} : aucun message après {}, lecture des nouveaux messages",
+                        partition, Instant.ofEpochMilli(timestamp));
+            }
+        }
+    }
+
+    private static long parseTimestamp(String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("kafka.consumer.start-timestamp est requis avec start-from=timestamp");
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return Instant.parse(value.trim()).toEpochMilli();
+        }
+    }
+
     /**
      * Traite le message reçu
      */
     private void processMessage(Message message) {
         // Simuler un traitement
         try {
-            Thread.sleep(100);
+            Thread.sleep(processingTimeMs);
             log.debug("✅ Message traité: {}", message.getId());
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
@@ -109,10 +383,15 @@ public class MessageConsumerService {
     public void stopConsuming() {
         log.info("🛑 Arrêt du consumer...");
         running = false;
-        if (consumer != null) {
-            consumer.wakeup();
-            consumer.close();
+        consumer.wakeup();
+        if (consumerThread != null) {
+            try {
+                // Le thread du consumer écrit les derniers checkpoints puis ferme le consumer
+                consumerThread.join(10_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
         }
-        log.info("✅ Consumer arrêté");
+        log.info("✅ Consumer arrêté (checkpoints: {})", checkpoints.getAll());
     }
 }
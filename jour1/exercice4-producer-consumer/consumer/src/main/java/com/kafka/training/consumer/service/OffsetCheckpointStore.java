@@ -0,0 +1,140 @@
+package com.kafka.training.consumer.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Checkpoint local des offsets traités, dans un fichier mappé en mémoire
+ *
+ * Un fichier par topic : un en-tête (magic + nombre de slots) puis un long par
+ * partition contenant le prochain offset à lire (0 = aucun checkpoint).
+ * update() est une simple écriture en mémoire (pas d'appel système par message) ;
+ * flush() force l'écriture sur disque. Entre deux flush, un arrêt brutal de la
+ * machine peut faire perdre les dernières positions : les messages correspondants
+ * seront relus (au moins une fois). Un arrêt brutal du seul processus ne perd rien,
+ * les pages modifiées restant dans le cache de l'OS.
+ *
+ * Utilisé par un seul thread (celui du consumer) : pas de synchronisation.
+ */
+public class OffsetCheckpointStore implements AutoCloseable {
+
+    private static final int MAGIC = 0x4B4F4646; // "KOFF"
+    private static final int HEADER_SIZE = 8;
+    private static final int MIN_SLOTS = 64;
+
+    private final Path file;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int slots;
+    private boolean dirty;
+
+    public OffsetCheckpointStore(Path directory, String topic) {
+        try {
+            Files.createDirectories(directory);
+            this.file = directory.resolve(topic + ".offsets");
+            this.channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            if (channel.size() >= HEADER_SIZE) {
+                MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+                if (header.getInt(0) != MAGIC) {
+                    throw new IllegalStateException("Fichier de checkpoint invalide : " + file);
+                }
+                map(header.getInt(4));
+            } else {
+                map(MIN_SLOTS);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Impossible d'ouvrir le checkpoint dans " + directory, e);
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Prochain offset à lire pour la partition, ou -1 si aucun checkpoint
+     */
+    public long get(int partition) {
+        if (partition >= slots) {
+            return -1;
+        }
+        long next = buffer.getLong(position(partition));
+        return next > 0 ? next : -1;
+    }
+
+    /**
+     * Tous les checkpoints présents (partition → prochain offset)
+     */
+    public Map<Integer, Long> getAll() {
+        Map<Integer, Long> offsets = new TreeMap<>();
+        for (int partition = 0; partition < slots; partition++) {
+            long next = get(partition);
+            if (next >= 0) {
+                offsets.put(partition, next);
+            }
+        }
+        return offsets;
+    }
+
+    /**
+     * Enregistre le prochain offset à lire (offset du dernier message traité + 1)
+     */
+    public void update(int partition, long nextOffset) {
+        if (partition >= slots) {
+            map(Math.max(slots * 2, partition + 1));
+        }
+        buffer.putLong(position(partition), nextOffset);
+        dirty = true;
+    }
+
+    /**
+     * Force l'écriture des checkpoints modifiés sur disque
+     */
+    public void flush() {
+        if (dirty) {
+            buffer.force();
+            dirty = false;
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * (Re)mappe le fichier avec au moins slotCount partitions.
+     * Le fichier grandit mais ne rétrécit jamais : les anciens checkpoints sont conservés.
+     */
+    private void map(int slotCount) {
+        try {
+            if (buffer != null) {
+                buffer.force();
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) slotCount * Long.BYTES);
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, slotCount);
+            slots = slotCount;
+            dirty = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Impossible de mapper " + file, e);
+        }
+    }
+
+    private static int position(int partition) {
+        return HEADER_SIZE + partition * Long.BYTES;
+    }
+}
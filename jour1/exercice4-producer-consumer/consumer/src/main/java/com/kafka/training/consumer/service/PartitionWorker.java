@@ -0,0 +1,119 @@
+package com.kafka.training.consumer.service;
+
+import com.kafka.training.consumer.model.Message;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Worker dédié à une partition
+ *
+ * Le thread de poll dépose les messages de la partition dans la file du worker, qui
+ * les traite dans l'ordre sur son propre thread : des partitions différentes sont
+ * traitées en parallèle, sur autant de cœurs que disponibles.
+ * Le thread de poll surveille backlog() pour mettre la partition en pause quand le
+ * worker prend du retard, et lit nextOffset() pour le checkpoint.
+ */
+public class PartitionWorker implements Runnable {
+
+    private static final Logger log = LoggerFactory.getLogger(PartitionWorker.class);
+
+    private final TopicPartition partition;
+    private final ObjLongConsumer<ConsumerRecord<String, Message>> handler;
+    private final LinkedBlockingQueue<Polled> queue = new LinkedBlockingQueue<>();
+    private final Thread thread;
+
+    private volatile boolean running = true;
+    private volatile long nextOffset = -1;
+
+    /**
+     * @param handler reçoit le message et l'instant (nanoTime) du poll() qui l'a ramené
+     */
+    public PartitionWorker(TopicPartition partition, ObjLongConsumer<ConsumerRecord<String, Message>> handler) {
+        this.partition = partition;
+        this.handler = handler;
+        this.thread = new Thread(this, "partition-worker-" + partition.partition());
+        this.thread.setDaemon(true);
+    }
+
+    public void start() {
+        thread.start();
+    }
+
+    /**
+     * Appelé par le thread de poll
+     */
+    public void submit(List<ConsumerRecord<String, Message>> records, long polledAtNanos) {
+        for (ConsumerRecord<String, Message> record : records) {
+            queue.add(new Polled(record, polledAtNanos));
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                Polled polled = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (polled == null) {
+                    continue;
+                }
+                ConsumerRecord<String, Message> record = polled.record;
+                try {
+                    handler.accept(record, polled.polledAtNanos);
+                } catch (RuntimeException e) {
+                    log.error("❌ Échec du traitement de {}@{}, message ignoré", partition, record.offset(), e);
+                }
+                nextOffset = record.offset() + 1;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Arrête le worker après le message en cours ; les messages encore en file ne sont
+     * pas traités (ils seront relus, le checkpoint ne les couvre pas)
+     */
+    public void stop(long timeoutMs) {
+        running = false;
+        try {
+            thread.join(timeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public TopicPartition getPartition() {
+        return partition;
+    }
+
+    /**
+     * Messages reçus mais pas encore traités
+     */
+    public int backlog() {
+        return queue.size();
+    }
+
+    /**
+     * Prochain offset à lire d'après les messages traités, ou -1 si aucun
+     */
+    public long nextOffset() {
+        return nextOffset;
+    }
+
+    private static final class Polled {
+        private final ConsumerRecord<String, Message> record;
+        private final long polledAtNanos;
+
+        private Polled(ConsumerRecord<String, Message> record, long polledAtNanos) {
+            this.record = record;
+            this.polledAtNanos = polledAtNanos;
+        }
+    }
+}
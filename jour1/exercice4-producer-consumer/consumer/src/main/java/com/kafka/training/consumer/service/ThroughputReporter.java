@@ -0,0 +1,53 @@
+package com.kafka.training.consumer.service;
+
+import com.kafka.training.consumer.trace.RecordTracer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Débit de consommation du processus (messages/s)
+ *
+ * Alimenté par les workers de partition, publié périodiquement dans les logs pour
+ * comparer le débit avec la trace activée ou non sur la même charge.
+ */
+@Component
+public class ThroughputReporter {
+
+    private static final Logger log = LoggerFactory.getLogger(ThroughputReporter.class);
+
+    private final LongAdder records = new LongAdder();
+    private final RecordTracer tracer;
+
+    private long totalRecords;
+    private long lastReportNanos = System.nanoTime();
+
+    public ThroughputReporter(RecordTracer tracer) {
+        this.tracer = tracer;
+    }
+
+    public void record() {
+        records.increment();
+    }
+
+    @Scheduled(fixedRateString = "${kafka.consumer.throughput-report-interval-ms:10000}",
+            initialDelayString = "${kafka.consumer.throughput-report-interval-ms:10000}")
+    public synchronized void report() {
+        long now = System.nanoTime();
+        long count = records.sumThenReset();
+        double elapsedSeconds = (now - lastReportNanos) / 1_000_000_000.0;
+        lastReportNanos = now;
+        if (count == 0) {
+            return;
+        }
+        totalRecords += count;
+        log.info("📈 Débit ({}) : {} msg/s - {} messages, total {}",
+                tracer.describe(),
+                String.format("%.1f", count / elapsedSeconds),
+                count,
+                totalRecords);
+    }
+}
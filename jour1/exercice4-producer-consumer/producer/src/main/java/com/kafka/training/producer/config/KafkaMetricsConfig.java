@@ -0,0 +1,34 @@
+package com.kafka.training.producer.config;
+
+import com.kafka.training.producer.metrics.ProducerSendMetrics;
+import com.kafka.training.producer.model.Message;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.MicrometerProducerListener;
+import org.springframework.kafka.core.ProducerFactory;
+
+@Configuration
+public class KafkaMetricsConfig {
+
+    @Bean
+    public MicrometerProducerListener<String, Message> micrometerProducerListener(
+            MeterRegistry meterRegistry,
+            ProducerFactory<String, Message> producerFactory) {
+
+        MicrometerProducerListener<String, Message> listener = new MicrometerProducerListener<>(meterRegistry);
+
+        // Add the listener to the producer factory
+        producerFactory.addListener(listener);
+
+        return listener;
+    }
+
+    /**
+     * Latence send → ack, envois en cours, débit par partition et erreurs par type
+     */
+    @Bean
+    public ProducerSendMetrics producerSendMetrics(MeterRegistry meterRegistry) {
+        return new ProducerSendMetrics(meterRegistry);
+    }
+}
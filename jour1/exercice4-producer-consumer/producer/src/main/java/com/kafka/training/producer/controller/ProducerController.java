@@ -1,15 +1,20 @@
 package com.kafka.training.producer.controller;
 
 import com.kafka.training.producer.model.Message;
+import com.kafka.training.producer.service.AdmissionRejectedException;
 import com.kafka.training.producer.service.MessageProducerService;
+import org.apache.kafka.common.KafkaException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/messages")
@@ -26,6 +31,9 @@ public class ProducerController {
      * Endpoint pour envoyer un message avec une clé
      * POST /api/messages/send
      *
+     * Répond à l'ack Kafka (partition, offset) sans bloquer le thread Tomcat pendant l'envoi.
+     * Si le producer est saturé : 429 + Retry-After immédiatement.
+     *
      * Body:
      * {
      *   "topic": "messages",
@@ -35,7 +43,7 @@ public class ProducerController {
      * }
      */
     @PostMapping("/send")
-    public ResponseEntity<Map<String, String>> sendMessage(@RequestBody Map<String, String> request) {
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> sendMessage(@RequestBody Map<String, String> request) {
         String topic = request.getOrDefault("topic", "messages");
         String key = request.get("key");
         String content = request.get("content");
@@ -48,18 +56,16 @@ public class ProducerController {
                 LocalDateTime.now()
         );
 
-        if (key != null && !key.isEmpty()) {
-            producerService.sendMessage(topic, key, message);
-        } else {
-            producerService.sendMessage(topic, message);
-        }
-
-        return ResponseEntity.ok(Map.of(
-                "status", "sent",
-                "topic", topic,
-                "key", key != null ? key : "null",
-                "messageId", message.getId()
-        ));
+        String messageKey = key != null && !key.isEmpty() ? key : null;
+        return producerService.submitMessage(topic, messageKey, message)
+                .thenApply(result -> ResponseEntity.ok(Map.of(
+                        "status", "acknowledged",
+                        "topic", topic,
+                        "key", messageKey != null ? messageKey : "null",
+                        "messageId", message.getId(),
+                        "partition", result.getRecordMetadata().partition(),
+                        "offset", result.getRecordMetadata().offset()
+                )));
     }
 
     /**
@@ -108,4 +114,24 @@ public class ProducerController {
     public ResponseEntity<Map<String, String>> health() {
         return ResponseEntity.ok(Map.of("status", "UP", "service", "producer"));
     }
+
+    /**
+     * Producer saturé : le client doit réessayer après Retry-After secondes
+     */
+    @ExceptionHandler(AdmissionRejectedException.class)
+    public ResponseEntity<Map<String, String>> handleAdmissionRejected(AdmissionRejectedException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(e.getRetryAfterSeconds()))
+                .body(Map.of("status", "rejected", "error", e.getMessage()));
+    }
+
+    /**
+     * Envoi en échec côté Kafka (timeout, broker indisponible...)
+     */
+    @ExceptionHandler({KafkaException.class, org.springframework.kafka.KafkaException.class})
+    public ResponseEntity<Map<String, String>> handleSendFailure(Exception e) {
+        log.warn("Échec de l'envoi: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Map.of("status", "failed", "error", String.valueOf(e.getMessage())));
+    }
 }
@@ -0,0 +1,129 @@
+package com.kafka.training.producer.loadgen;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogramme de latences log-linéaire, à la manière de HdrHistogram
+ *
+ * Les valeurs sont enregistrées en microsecondes. Chaque puissance de 2 est
+ * découpée en 128 sous-intervalles : l'erreur relative reste inférieure à 0,8 %
+ * de 1 µs jusqu'à plusieurs heures, avec un tableau de taille fixe (~35 Ko).
+ * L'enregistrement est sans verrou et peut être appelé depuis plusieurs threads.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 8;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT / 2;
+    // Valeur max enregistrable : 2^40 µs (~12 jours), au-delà la valeur est plafonnée
+    private static final int MAX_VALUE_BITS = 40;
+    private static final long MAX_VALUE = (1L << MAX_VALUE_BITS) - 1;
+    private static final int BUCKET_COUNT =
+            SUB_BUCKET_COUNT + (MAX_VALUE_BITS - SUB_BUCKET_BITS) * SUB_BUCKET_HALF;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    public void recordNanos(long nanos) {
+        recordMicros(TimeUnit.NANOSECONDS.toMicros(Math.max(0, nanos)));
+    }
+
+    public void recordMicros(long micros) {
+        long value = Math.min(Math.max(0, micros), MAX_VALUE);
+        counts.incrementAndGet(indexOf(value));
+        totalCount.increment();
+        totalMicros.add(value);
+        maxMicros.accumulateAndGet(value, Math::max);
+    }
+
+    public long count() {
+        return totalCount.sum();
+    }
+
+    public long maxMicros() {
+        return maxMicros.get();
+    }
+
+    public double meanMicros() {
+        long count = totalCount.sum();
+        return count > 0 ? (double) totalMicros.sum() / count : 0.0;
+    }
+
+    /**
+     * Valeur sous laquelle se trouvent quantile (0..1) des mesures, en microsecondes
+     * (borne haute de l'intervalle, comme HdrHistogram)
+     */
+    public long percentileMicros(double quantile) {
+        long count = totalCount.sum();
+        if (count == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(highestEquivalentValue(i), maxMicros.get());
+            }
+        }
+        return maxMicros.get();
+    }
+
+    /**
+     * Résumé en millisecondes : p50, p90, p99, p99.9, max et moyenne
+     */
+    public Map<String, Double> summaryMillis() {
+        Map<String, Double> summary = new LinkedHashMap<>();
+        summary.put("count", (double) count());
+        summary.put("p50", toMillis(percentileMicros(0.50)));
+        summary.put("p90", toMillis(percentileMicros(0.90)));
+        summary.put("p99", toMillis(percentileMicros(0.99)));
+        summary.put("p99.9", toMillis(percentileMicros(0.999)));
+        summary.put("max", toMillis(maxMicros()));
+        summary.put("mean", meanMicros() / 1000.0);
+        return summary;
+    }
+
+    /**
+     * Remise à zéro (début d'une nouvelle campagne)
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+        totalCount.reset();
+        totalMicros.reset();
+        maxMicros.set(0);
+    }
+
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        // shift tel que (value >>> shift) soit dans [SUB_BUCKET_HALF, SUB_BUCKET_COUNT[
+        int shift = (63 - Long.numberOfLeadingZeros(value)) - (SUB_BUCKET_BITS - 1);
+        int subBucket = (int) (value >>> shift) - SUB_BUCKET_HALF;
+        return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF + subBucket;
+    }
+
+    private static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int offset = index - SUB_BUCKET_COUNT;
+        int shift = offset / SUB_BUCKET_HALF + 1;
+        long subBucket = offset % SUB_BUCKET_HALF + SUB_BUCKET_HALF;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    private static double toMillis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,116 @@
+package com.kafka.training.producer.loadgen;
+
+import java.util.Map;
+
+/**
+ * État d'une campagne de charge
+ *
+ * responseTime : de l'instant planifié de l'envoi jusqu'à l'ack (inclut l'attente
+ * si le générateur a pris du retard, donc sans "coordinated omission").
+ * serviceTime : de l'appel effectif à send() jusqu'à l'ack.
+ */
+public class LoadReport {
+
+    private boolean running;
+    private LoadProfile profile;
+    private long elapsedMs;
+    private long sent;
+    private long acknowledged;
+    private long failed;
+    private long inFlight;
+    private double actualRatePerSecond;
+    private double maxScheduleLagMs;
+    private Map<String, Double> responseTime;
+    private Map<String, Double> serviceTime;
+
+    public LoadReport() {
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public void setRunning(boolean running) {
+        this.running = running;
+    }
+
+    public LoadProfile getProfile() {
+        return profile;
+    }
+
+    public void setProfile(LoadProfile profile) {
+        this.profile = profile;
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public void setElapsedMs(long elapsedMs) {
+        this.elapsedMs = elapsedMs;
+    }
+
+    public long getSent() {
+        return sent;
+    }
+
+    public void setSent(long sent) {
+        this.sent = sent;
+    }
+
+    public long getAcknowledged() {
+        return acknowledged;
+    }
+
+    public void setAcknowledged(long acknowledged) {
+        this.acknowledged = acknowledged;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public long getInFlight() {
+        return inFlight;
+    }
+
+    public void setInFlight(long inFlight) {
+        this.inFlight = inFlight;
+    }
+
+    public double getActualRatePerSecond() {
+        return actualRatePerSecond;
+    }
+
+    public void setActualRatePerSecond(double actualRatePerSecond) {
+        this.actualRatePerSecond = actualRatePerSecond;
+    }
+
+    public double getMaxScheduleLagMs() {
+        return maxScheduleLagMs;
+    }
+
+    public void setMaxScheduleLagMs(double maxScheduleLagMs) {
+        this.maxScheduleLagMs = maxScheduleLagMs;
+    }
+
+    public Map<String, Double> getResponseTime() {
+        return responseTime;
+    }
+
+    public void setResponseTime(Map<String, Double> responseTime) {
+        this.responseTime = responseTime;
+    }
+
+    public Map<String, Double> getServiceTime() {
+        return serviceTime;
+    }
+
+    public void setServiceTime(Map<String, Double> serviceTime) {
+        this.serviceTime = serviceTime;
+    }
+}
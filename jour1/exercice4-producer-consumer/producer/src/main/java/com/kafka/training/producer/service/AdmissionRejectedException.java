@@ -0,0 +1,18 @@
+package com.kafka.training.producer.service;
+
+/**
+ * Envoi refusé par la file d'admission : le client doit réessayer après retryAfterSeconds
+ */
+public class AdmissionRejectedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public AdmissionRejectedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
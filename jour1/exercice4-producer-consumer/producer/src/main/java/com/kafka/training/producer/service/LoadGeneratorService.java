@@ -0,0 +1,131 @@
+package com.kafka.training.producer.service;
+
+import com.kafka.training.producer.loadgen.LatencyHistogram;
+import com.kafka.training.producer.loadgen.LoadProfile;
+import com.kafka.training.producer.loadgen.LoadReport;
+import com.kafka.training.producer.loadgen.OpenLoopLoadGenerator;
+import com.kafka.training.producer.model.Message;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Campagnes de charge en boucle ouverte sur un topic au choix
+ *
+ * Une seule campagne à la fois. Les percentiles de la campagne en cours (ou de la
+ * dernière) sont exposés dans Prometheus :
+ * - loadgen_latency_seconds{type="response|service",quantile="0.5|0.99|0.999"}
+ * - loadgen_records{result="sent|acknowledged|failed"}, loadgen_in_flight, loadgen_rate_target
+ */
+@Service
+public class LoadGeneratorService {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadGeneratorService.class);
+
+    private static final double[] QUANTILES = {0.5, 0.99, 0.999};
+    private static final String SENDER = "load-generator";
+
+    private final MessageProducerService producerService;
+    private final LatencyHistogram responseTime = new LatencyHistogram();
+    private final LatencyHistogram serviceTime = new LatencyHistogram();
+
+    private volatile OpenLoopLoadGenerator generator;
+
+    public LoadGeneratorService(MessageProducerService producerService, MeterRegistry meterRegistry) {
+        this.producerService = producerService;
+        registerLatencyGauges(meterRegistry, "response", responseTime);
+        registerLatencyGauges(meterRegistry, "service", serviceTime);
+        registerRecordGauge(meterRegistry, "sent", OpenLoopLoadGenerator::getSent);
+        registerRecordGauge(meterRegistry, "acknowledged", OpenLoopLoadGenerator::getAcknowledged);
+        registerRecordGauge(meterRegistry, "failed", OpenLoopLoadGenerator::getFailed);
+        Gauge.builder("loadgen.in.flight", this, s -> s.current(OpenLoopLoadGenerator::getInFlight))
+                .description("Load generator sends awaiting an ack")
+                .register(meterRegistry);
+        Gauge.builder("loadgen.rate.target", this,
+                        s -> s.current(g -> g.isRunning() ? g.getProfile().getRatePerSecond() : 0))
+                .description("Target send rate of the running load test (records/s)")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Démarre une campagne dans un thread dédié
+     *
+     * @throws IllegalStateException    si une campagne est déjà en cours
+     * @throws IllegalArgumentException si le profil est invalide
+     */
+    public synchronized LoadReport start(String topic, LoadProfile profile) {
+        if (generator != null && generator.isRunning()) {
+            throw new IllegalStateException("Un test de charge est déjà en cours");
+        }
+        profile.validate();
+        responseTime.reset();
+        serviceTime.reset();
+
+        OpenLoopLoadGenerator next = new OpenLoopLoadGenerator(profile, (key, sequence) -> sendMessage(topic, key, sequence), responseTime, serviceTime);
+        Thread thread = new Thread(next, "load-generator");
+        thread.setDaemon(true);
+        generator = next;
+        thread.start();
+
+        log.info("Test de charge démarré sur '{}': {} messages/s pendant {}s sur {} clés ({})",
+                topic, profile.getRatePerSecond(), profile.getDurationSeconds(),
+                profile.getKeyCount(), profile.getDistribution());
+        return next.report();
+    }
+
+    public synchronized Optional<LoadReport> stop() {
+        if (generator == null) {
+            return Optional.empty();
+        }
+        generator.stop();
+        log.info("Test de charge arrêté");
+        return Optional.of(generator.report());
+    }
+
+    public Optional<LoadReport> report() {
+        OpenLoopLoadGenerator current = generator;
+        return current != null ? Optional.of(current.report()) : Optional.empty();
+    }
+
+    private CompletableFuture<?> sendMessage(String topic, int key, long sequence) {
+        Message message = new Message(
+                UUID.randomUUID().toString(),
+                "Load message #" + sequence,
+                SENDER,
+                LocalDateTime.now()
+        );
+        return producerService.sendMessageAsync(topic, "key-" + key, message);
+    }
+
+    private double current(ToDoubleFunction<OpenLoopLoadGenerator> value) {
+        OpenLoopLoadGenerator current = generator;
+        return current != null ? value.applyAsDouble(current) : 0;
+    }
+
+    private void registerRecordGauge(MeterRegistry registry, String result,
+                                     ToDoubleFunction<OpenLoopLoadGenerator> value) {
+        Gauge.builder("loadgen.records", this, s -> s.current(value))
+                .tag("result", result)
+                .description("Records of the current load test")
+                .register(registry);
+    }
+
+    private static void registerLatencyGauges(MeterRegistry registry, String type, LatencyHistogram histogram) {
+        for (double quantile : QUANTILES) {
+            Gauge.builder("loadgen.latency", histogram, h -> h.percentileMicros(quantile) / 1_000_000.0)
+                    .tag("type", type)
+                    .tag("quantile", Double.toString(quantile))
+                    .baseUnit("seconds")
+                    .description("Load test send-to-ack latency (response = from scheduled time)")
+                    .register(registry);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.kafka.training.producer.service;
 
+import com.kafka.training.producer.metrics.ProducerSendMetrics;
 import com.kafka.training.producer.model.Message;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -14,9 +15,38 @@ public class MessageProducerService {
 
     private static final Logger log = LoggerFactory.getLogger(MessageProducerService.class);
     private final KafkaTemplate<String, Message> kafkaTemplate;
+    private final ProducerSendMetrics sendMetrics;
+    private final SendAdmissionQueue admissionQueue;
 
-    public MessageProducerService(KafkaTemplate<String, Message> kafkaTemplate) {
+    public MessageProducerService(KafkaTemplate<String, Message> kafkaTemplate,
+                                  ProducerSendMetrics sendMetrics,
+                                  SendAdmissionQueue admissionQueue) {
         this.kafkaTemplate = kafkaTemplate;
+        this.sendMetrics = sendMetrics;
+        this.admissionQueue = admissionQueue;
+    }
+
+    /**
+     * Envoie un message via la file d'admission, sans bloquer le thread appelant
+     *
+     * @param topic   Le nom du topic
+     * @param key     La clé du message (null = sans clé)
+     * @param message Le message à envoyer
+     * @return future terminé à l'ack Kafka, ou en AdmissionRejectedException si le producer est saturé
+     */
+    public CompletableFuture<SendResult<String, Message>> submitMessage(String topic, String key, Message message) {
+        return admissionQueue.submit(() -> key != null
+                        ? sendMessageAsync(topic, key, message)
+                        : sendMetrics.track(topic, () -> kafkaTemplate.send(topic, message)))
+                .whenComplete((result, ex) -> {
+                    if (ex == null) {
+                        log.info("Message acquitté! Topic: {}, Partition: {}, Offset: {}, Key: {}",
+                                topic, result.getRecordMetadata().partition(),
+                                result.getRecordMetadata().offset(), key);
+                    } else if (!(ex instanceof AdmissionRejectedException)) {
+                        log.error("Erreur lors de l'envoi du message vers '{}' avec la clé '{}'", topic, key, ex);
+                    }
+                });
     }
 
     /**
@@ -29,7 +59,7 @@ public class MessageProducerService {
     public void sendMessage(String topic, String key, Message message) {
         log.info("Envoi du message vers le topic '{}' avec la clé '{}': {}", topic, key, message);
 
-        CompletableFuture<SendResult<String, Message>> future = kafkaTemplate.send(topic, key, message);
+        CompletableFuture<SendResult<String, Message>> future = sendMessageAsync(topic, key, message);
 
         future.whenComplete((result, ex) -> {
             if (ex == null) {
@@ -44,6 +74,14 @@ public class MessageProducerService {
         });
     }
 
+    /**
+     * Envoie un message sans log : l'appelant traite lui-même l'acquittement
+     * (utilisé par le générateur de charge)
+     */
+    public CompletableFuture<SendResult<String, Message>> sendMessageAsync(String topic, String key, Message message) {
+        return sendMetrics.track(topic, () -> kafkaTemplate.send(topic, key, message));
+    }
+
     /**
      * Envoie un message sans clé (distribution round-robin)
      *
@@ -53,7 +91,8 @@ public class MessageProducerService {
     public void sendMessage(String topic, Message message) {
         log.info("Envoi du message vers le topic '{}' sans clé: {}", topic, message);
 
-        CompletableFuture<SendResult<String, Message>> future = kafkaTemplate.send(topic, message);
+        CompletableFuture<SendResult<String, Message>> future =
+                sendMetrics.track(topic, () -> kafkaTemplate.send(topic, message));
 
         future.whenComplete((result, ex) -> {
             if (ex == null) {
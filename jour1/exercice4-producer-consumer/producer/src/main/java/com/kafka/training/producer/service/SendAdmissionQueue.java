@@ -0,0 +1,151 @@
+package com.kafka.training.producer.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * File d'admission bornée devant le producer Kafka
+ *
+ * Quand le buffer du producer est plein, KafkaTemplate.send() bloque jusqu'à
+ * max.block.ms. Pour ne pas bloquer les threads Tomcat, les envois sont
+ * exécutés par producer.admission.sender-threads threads dédiés, derrière une file
+ * de producer.admission.queue-capacity envois. Un envoi est refusé immédiatement
+ * (AdmissionRejectedException → 429 + Retry-After) si :
+ * - la file est pleine,
+ * - ou les octets en vol (admis, pas encore acquittés) dépassent
+ *   producer.admission.max-in-flight-bytes, à garder sous buffer.memory.
+ *
+ * La taille d'un envoi n'est connue qu'après sérialisation : on réserve la taille
+ * moyenne observée sur les acks précédents (moyenne mobile exponentielle).
+ */
+@Component
+public class SendAdmissionQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(SendAdmissionQueue.class);
+
+    private static final long INITIAL_RECORD_BYTES_ESTIMATE = 512;
+
+    private final ThreadPoolExecutor executor;
+    private final BlockingQueue<Runnable> queue;
+    private final long maxInFlightBytes;
+    private final long retryAfterSeconds;
+    private final AtomicLong inFlightBytes = new AtomicLong();
+    private final AtomicLong recordBytesEstimate = new AtomicLong(INITIAL_RECORD_BYTES_ESTIMATE);
+    private final Counter rejectedQueueFull;
+    private final Counter rejectedInFlightBytes;
+
+    public SendAdmissionQueue(MeterRegistry meterRegistry,
+                              @Value("${producer.admission.queue-capacity:10000}") int queueCapacity,
+                              @Value("${producer.admission.sender-threads:2}") int senderThreads,
+                              @Value("${producer.admission.max-in-flight-bytes:16777216}") long maxInFlightBytes,
+                              @Value("${producer.admission.retry-after-seconds:1}") long retryAfterSeconds) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(senderThreads, senderThreads, 0L, TimeUnit.MILLISECONDS, queue,
+                runnable -> {
+                    Thread thread = new Thread(runnable, "kafka-sender-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.maxInFlightBytes = maxInFlightBytes;
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        Gauge.builder("producer.admission.queue.size", queue, BlockingQueue::size)
+                .description("Sends waiting for a sender thread")
+                .register(meterRegistry);
+        Gauge.builder("producer.admission.in.flight.bytes", inFlightBytes, AtomicLong::get)
+                .baseUnit("bytes")
+                .description("Estimated bytes admitted and not yet acknowledged")
+                .register(meterRegistry);
+        this.rejectedQueueFull = rejectedCounter(meterRegistry, "queue_full");
+        this.rejectedInFlightBytes = rejectedCounter(meterRegistry, "in_flight_bytes");
+    }
+
+    /**
+     * Admet un envoi ou le refuse immédiatement.
+     * Le future retourné se termine à l'ack Kafka, ou en erreur avec
+     * AdmissionRejectedException si l'envoi n'a pas été admis.
+     */
+    public <K, V> CompletableFuture<SendResult<K, V>> submit(Supplier<CompletableFuture<SendResult<K, V>>> send) {
+        long reserved = recordBytesEstimate.get();
+        long total = inFlightBytes.addAndGet(reserved);
+        // Un envoi seul est toujours admis, même plus gros que la limite
+        if (total > maxInFlightBytes && total != reserved) {
+            inFlightBytes.addAndGet(-reserved);
+            rejectedInFlightBytes.increment();
+            return CompletableFuture.failedFuture(new AdmissionRejectedException(
+                    "Octets en vol du producer au-delà de " + maxInFlightBytes, retryAfterSeconds));
+        }
+
+        CompletableFuture<SendResult<K, V>> acked = new CompletableFuture<>();
+        try {
+            executor.execute(() -> send(send, reserved, acked));
+        } catch (RejectedExecutionException e) {
+            inFlightBytes.addAndGet(-reserved);
+            rejectedQueueFull.increment();
+            return CompletableFuture.failedFuture(new AdmissionRejectedException(
+                    "File d'admission du producer pleine", retryAfterSeconds));
+        }
+        return acked;
+    }
+
+    private <K, V> void send(Supplier<CompletableFuture<SendResult<K, V>>> send, long reserved,
+                             CompletableFuture<SendResult<K, V>> acked) {
+        try {
+            send.get().whenComplete((result, ex) -> {
+                inFlightBytes.addAndGet(-reserved);
+                if (ex != null) {
+                    acked.completeExceptionally(ex);
+                    return;
+                }
+                updateEstimate(result.getRecordMetadata());
+                acked.complete(result);
+            });
+        } catch (RuntimeException e) {
+            inFlightBytes.addAndGet(-reserved);
+            acked.completeExceptionally(e);
+        }
+    }
+
+    private void updateEstimate(RecordMetadata metadata) {
+        long size = Math.max(0, metadata.serializedKeySize()) + Math.max(0, metadata.serializedValueSize());
+        if (size > 0) {
+            recordBytesEstimate.updateAndGet(estimate -> Math.max(1, (estimate * 7 + size) / 8));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+            log.warn("File d'admission arrêtée avec {} envois en attente", queue.size());
+            executor.shutdownNow();
+        }
+    }
+
+    private static Counter rejectedCounter(MeterRegistry registry, String reason) {
+        return Counter.builder("producer.admission.rejected")
+                .tag("reason", reason)
+                .description("Sends rejected with 429 before reaching the producer")
+                .register(registry);
+    }
+}
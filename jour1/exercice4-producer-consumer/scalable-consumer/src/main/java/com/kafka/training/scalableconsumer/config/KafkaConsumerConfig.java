@@ -2,9 +2,17 @@ package com.kafka.training.scalableconsumer.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.kafka.training.scalableconsumer.metrics.ConsumerMetrics;
+import com.kafka.training.scalableconsumer.metrics.PollTimingConsumer;
+import com.kafka.training.scalableconsumer.metrics.RebalanceMetricsListener;
 import com.kafka.training.scalableconsumer.model.Message;
+import com.kafka.training.scalableconsumer.service.ParallelMessageProcessor;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.CooperativeStickyAssignor;
+import org.apache.kafka.clients.consumer.RangeAssignor;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -12,7 +20,9 @@ import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.util.StringUtils;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -21,14 +31,55 @@ import java.util.Map;
 @Configuration
 public class KafkaConsumerConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(KafkaConsumerConfig.class);
+
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
+    /**
+     * single : un message par invocation du listener
+     * batch : un lot (poll) par invocation, traité en une opération
+     * parallel : un lot par invocation, distribué sur un pool de workers avec ordre par clé
+     */
+    @Value("${kafka.consumer.mode:single}")
+    private String mode;
+
+    @Value("${kafka.consumer.concurrency:1}")
+    private int concurrency;
+
+    /**
+     * cooperative : seules les partitions qui changent de propriétaire sont révoquées
+     * eager : toutes les partitions du groupe sont révoquées puis réassignées
+     */
+    @Value("${kafka.consumer.rebalance.protocol:cooperative}")
+    private String rebalanceProtocol;
+
+    @Value("${kafka.consumer.rebalance.instance-id:}")
+    private String instanceId;
+
+    /**
+     * L'autoscaling redémarre le container (stop/start) : incompatible avec un membre statique
+     */
+    @Value("${kafka.consumer.autoscale.enabled:false}")
+    private boolean autoscaleEnabled;
+
+    @Value("${kafka.consumer.rebalance.session-timeout-ms:10000}")
+    private int sessionTimeoutMs;
+
+    @Value("${kafka.consumer.batch.max-size:500}")
+    private int batchMaxSize;
+
+    @Value("${kafka.consumer.batch.max-wait-ms:500}")
+    private int batchMaxWaitMs;
+
+    @Value("${kafka.consumer.batch.min-bytes:65536}")
+    private int batchMinBytes;
+
     @Bean
-    public ConsumerFactory<String, Message> consumerFactory() {
+    public ConsumerFactory<String, Message> consumerFactory(ConsumerMetrics consumerMetrics) {
         Map<String, Object> config = new HashMap<>();
 
         // Configuration du broker
@@ -40,18 +91,45 @@ public class KafkaConsumerConfig {
 
         // Configuration du consumer
         config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
-        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, true);
-        config.put(ConsumerConfig.AUTO_COMMIT_INTERVAL_MS_CONFIG, 1000);
-
-        // Heartbeat et session timeout pour la détection rapide des pannes
+        // Commits manuels dans tous les modes : l'auto-commit périodique peut commiter des
+        // messages pas encore traités (perdus) ou en oublier (retraités) au rebalancing
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+
+        // Rebalancing incrémental : les partitions conservées continuent d'être consommées
+        config.put(ConsumerConfig.PARTITION_ASSIGNMENT_STRATEGY_CONFIG,
+                "eager".equals(rebalanceProtocol) ? RangeAssignor.class : CooperativeStickyAssignor.class);
+
+        // Membre statique : un redémarrage plus court que session.timeout.ms ne déclenche
+        // aucun rebalancing (spring-kafka suffixe l'identifiant par thread : -0, -1...).
+        // Ignoré avec l'autoscaling : un membre statique arrêté par stop() ne quitte pas le
+        // groupe, ses partitions resteraient sans consommateur jusqu'à session.timeout.ms
+        if (StringUtils.hasText(instanceId) && autoscaleEnabled) {
+            log.warn("⚠️ Autoscaling actif : instance-id '{}' ignoré, membres dynamiques", instanceId);
+        } else if (StringUtils.hasText(instanceId)) {
+            config.put(ConsumerConfig.GROUP_INSTANCE_ID_CONFIG, instanceId);
+        }
+
+        // Heartbeat et session timeout : délai de détection d'une instance arrêtée
         config.put(ConsumerConfig.HEARTBEAT_INTERVAL_MS_CONFIG, 3000);
-        config.put(ConsumerConfig.SESSION_TIMEOUT_MS_CONFIG, 10000);
-
-        return new DefaultKafkaConsumerFactory<>(
+        config.put(ConsumerConfig.SESSION_TIMEOUT_MS_CONFIG, sessionTimeoutMs);
+
+        // Taille des lots : un poll() renvoie au plus max-size messages
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, batchMaxSize);
+        if ("batch".equals(mode)) {
+            // Le broker retient la réponse du fetch jusqu'à min-bytes de données
+            // ou max-wait-ms écoulées : sous faible charge, on attend un peu pour remplir le lot
+            config.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, batchMinBytes);
+            config.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, batchMaxWaitMs);
+        }
+
+        DefaultKafkaConsumerFactory<String, Message> factory = new DefaultKafkaConsumerFactory<>(
                 config,
                 new StringDeserializer(),
                 jsonDeserializer()
         );
+        // Horodatage de chaque poll() (intervalle entre poll() et latence poll → traitement)
+        factory.addPostProcessor(new PollTimingConsumer<>(consumerMetrics));
+        return factory;
     }
 
     @Bean
@@ -63,18 +141,46 @@ public class KafkaConsumerConfig {
     }
 
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, Message> kafkaListenerContainerFactory() {
+    public ConcurrentKafkaListenerContainerFactory<String, Message> kafkaListenerContainerFactory(
+            ConsumerFactory<String, Message> consumerFactory,
+            ParallelMessageProcessor parallelProcessor,
+            ConsumerMetrics consumerMetrics) {
         ConcurrentKafkaListenerContainerFactory<String, Message> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(consumerFactory());
+        factory.setConsumerFactory(consumerFactory);
 
         // Configuration pour la scalabilité
         // Nombre de threads par consumer (permet de consommer plusieurs partitions en parallèle)
-        factory.setConcurrency(1); // 1 thread par défaut, configurable par instance
+        factory.setConcurrency(concurrency); // 1 thread par défaut, configurable par instance
+
+        // Modes batch et parallel : le listener reçoit tout le lot renvoyé par un poll()
+        factory.setBatchListener(!"single".equals(mode));
+
+        ContainerProperties containerProperties = factory.getContainerProperties();
+        // Nombre et durée des rebalancings ; en mode parallel, ParallelMessageProcessor
+        // attend en plus la fin des messages en cours avant de rendre une partition
+        containerProperties.setConsumerRebalanceListener(
+                new RebalanceMetricsListener(consumerMetrics, isParallel() ? parallelProcessor : null));
+
+        if (isParallel()) {
+            // Le container ne commite rien : ParallelMessageProcessor s'en charge
+            containerProperties.setAckMode(ContainerProperties.AckMode.MANUAL);
+            // Événement d'inactivité toutes les secondes sans message : commit des derniers offsets
+            containerProperties.setIdleEventInterval(1000L);
+        } else {
+            // Le container commite les offsets exacts après chaque lot traité, et ceux des
+            // partitions révoquées avant de les rendre
+            containerProperties.setAckMode(ContainerProperties.AckMode.BATCH);
+            containerProperties.setSyncCommits(true);
+        }
 
         return factory;
     }
 
+    private boolean isParallel() {
+        return "parallel".equals(mode);
+    }
+
     @Bean
     public ObjectMapper objectMapper() {
         ObjectMapper mapper = new ObjectMapper();
@@ -0,0 +1,37 @@
+package com.kafka.training.scalableconsumer.config;
+
+import com.kafka.training.scalableconsumer.metrics.ConsumerMetrics;
+import com.kafka.training.scalableconsumer.model.Message;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.MicrometerConsumerListener;
+
+@Configuration
+public class KafkaMetricsConfig {
+
+    /**
+     * Métriques du client Kafka (kafka_consumer_*) : fetch, records-lag, coordinator...
+     */
+    @Bean
+    public MicrometerConsumerListener<String, Message> micrometerConsumerListener(
+            MeterRegistry meterRegistry,
+            ConsumerFactory<String, Message> consumerFactory) {
+
+        MicrometerConsumerListener<String, Message> listener = new MicrometerConsumerListener<>(meterRegistry);
+
+        // Add the listener to the consumer factory
+        consumerFactory.addListener(listener);
+
+        return listener;
+    }
+
+    /**
+     * Lag, débit, latence poll → traitement par partition et rebalancings
+     */
+    @Bean
+    public ConsumerMetrics consumerMetrics(MeterRegistry meterRegistry) {
+        return new ConsumerMetrics(meterRegistry);
+    }
+}
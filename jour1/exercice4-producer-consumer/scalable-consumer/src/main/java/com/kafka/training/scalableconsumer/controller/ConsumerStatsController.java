@@ -0,0 +1,45 @@
+package com.kafka.training.scalableconsumer.controller;
+
+import com.kafka.training.scalableconsumer.metrics.ConsumerMetrics;
+import com.kafka.training.scalableconsumer.model.ConsumerStats;
+import com.kafka.training.scalableconsumer.service.ConcurrencyAutoscaler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Vue JSON des métriques de consommation (les mêmes valeurs sont exposées dans
+ * /actuator/prometheus)
+ */
+@RestController
+@RequestMapping("/api/consumer")
+public class ConsumerStatsController {
+
+    private final ConsumerMetrics metrics;
+    private final ConcurrencyAutoscaler autoscaler;
+
+    @Value("${spring.application.name}")
+    private String applicationName;
+
+    @Value("${kafka.consumer.mode:single}")
+    private String mode;
+
+    public ConsumerStatsController(ConsumerMetrics metrics, ConcurrencyAutoscaler autoscaler) {
+        this.metrics = metrics;
+        this.autoscaler = autoscaler;
+    }
+
+    /**
+     * Lag, débit et latences par partition, rebalancings
+     * GET /api/consumer/stats
+     */
+    @GetMapping("/stats")
+    public ConsumerStats stats() {
+        ConsumerStats stats = metrics.snapshot();
+        stats.setApplication(applicationName);
+        stats.setMode(mode);
+        stats.setConcurrency(autoscaler.getCurrentConcurrency());
+        return stats;
+    }
+}
@@ -0,0 +1,82 @@
+package com.kafka.training.scalableconsumer.metrics;
+
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lag du consumer group, partition par partition
+ *
+ * Compare périodiquement les offsets commités du groupe et les offsets de fin des
+ * partitions via l'AdminClient. Le lag est celui de tout le groupe (toutes instances
+ * confondues) : c'est l'indicateur qui dit s'il faut ajouter une instance.
+ */
+@Component
+public class ConsumerLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ConsumerLagMonitor.class);
+    private static final long TIMEOUT_SECONDS = 5;
+
+    private final AdminClient admin;
+    private final ConsumerMetrics metrics;
+
+    @Value("${spring.kafka.consumer.group-id}")
+    private String groupId;
+
+    @Value("${kafka.consumer.topic:messages}")
+    private String topic;
+
+    public ConsumerLagMonitor(KafkaAdmin kafkaAdmin, ConsumerMetrics metrics) {
+        this.admin = AdminClient.create(kafkaAdmin.getConfigurationProperties());
+        this.metrics = metrics;
+    }
+
+    @Scheduled(fixedRateString = "${kafka.consumer.metrics.interval-ms:10000}")
+    public void refresh() {
+        try {
+            Map<TopicPartition, OffsetAndMetadata> committed = admin.listConsumerGroupOffsets(groupId)
+                    .partitionsToOffsetAndMetadata()
+                    .get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+            TopicDescription description = admin.describeTopics(List.of(topic))
+                    .allTopicNames()
+                    .get(TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                    .get(topic);
+            Map<TopicPartition, OffsetSpec> latest = new HashMap<>();
+            description.partitions().forEach(info ->
+                    latest.put(new TopicPartition(topic, info.partition()), OffsetSpec.latest()));
+            Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> end = admin.listOffsets(latest)
+                    .all()
+                    .get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+            end.forEach((partition, info) -> {
+                OffsetAndMetadata offset = committed.get(partition);
+                metrics.updateOffsets(partition, offset != null ? offset.offset() : -1, info.offset());
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.debug("Lag du groupe {} indisponible : {}", groupId, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        admin.close();
+    }
+}
@@ -0,0 +1,362 @@
+package com.kafka.training.scalableconsumer.metrics;
+
+import com.kafka.training.scalableconsumer.model.ConsumerStats;
+import com.kafka.training.scalableconsumer.model.PartitionStats;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métriques de consommation, par partition
+ *
+ * - consumer.lag / consumer.offset.committed / consumer.offset.end{topic,partition}
+ * - consumer.records{topic,partition} : messages traités (rate() = msg/s)
+ * - consumer.poll.to.process{topic,partition} : du retour de poll() à la fin du traitement
+ * - consumer.poll.interval : temps entre deux retours de poll() d'un même thread, vides compris
+ *   (à comparer à max.poll.interval.ms)
+ * - consumer.processing : durée d'un appel de traitement (un message, ou un lot en mode batch)
+ * - consumer.rebalances / consumer.rebalance.duration : nombre et durée des rebalancings
+ * - consumer.rebalance.pause : temps pendant lequel un thread n'a rien consommé à cause d'un
+ *   rebalancing (tout le rebalancing s'il a perdu toutes ses partitions, sinon le seul temps de
+ *   révocation : drain des messages en cours et commit)
+ * - consumer.rebalance.revocation : durée de la révocation (drain + commit des partitions rendues)
+ * - consumer.rebalance.partitions{action=revoked|assigned} : partitions déplacées
+ *
+ * polled() est appelé depuis le thread du consumer (PollTimingConsumer), les autres
+ * méthodes depuis n'importe quel thread.
+ */
+public class ConsumerMetrics {
+
+    private static final Duration MIN_EXPECTED = Duration.ofMillis(1);
+    private static final Duration MAX_EXPECTED = Duration.ofMinutes(5);
+
+    private final MeterRegistry registry;
+    private final Map<TopicPartition, PartitionState> partitions = new ConcurrentHashMap<>();
+    private final ThreadLocal<Long> lastPollNanos = new ThreadLocal<>();
+    private final ThreadLocal<Long> rebalanceStartNanos = new ThreadLocal<>();
+    private final ThreadLocal<Long> stalledSinceNanos = new ThreadLocal<>();
+    private final ThreadLocal<Set<TopicPartition>> owned = ThreadLocal.withInitial(HashSet::new);
+    private final Timer pollInterval;
+    private final Timer processing;
+    private final Timer rebalanceDuration;
+    private final Timer rebalancePause;
+    private final Timer revocation;
+    private final Counter rebalances;
+    private final Counter revokedPartitions;
+    private final Counter assignedPartitions;
+
+    private volatile double lastRebalanceMs;
+    private volatile double lastPauseMs;
+    private long lastRateNanos = System.nanoTime();
+
+    public ConsumerMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.pollInterval = timer("consumer.poll.interval", "Time between two poll() returns of a consumer thread, empty polls included")
+                .register(registry);
+        this.processing = timer("consumer.processing", "Duration of one processing call (record or batch)")
+                .register(registry);
+        this.rebalanceDuration = timer("consumer.rebalance.duration", "Time from partition revocation to assignment")
+                .register(registry);
+        this.rebalancePause = timer("consumer.rebalance.pause", "Time a consumer thread consumed nothing because of a rebalance")
+                .register(registry);
+        this.revocation = timer("consumer.rebalance.revocation", "Time to drain and commit revoked partitions")
+                .register(registry);
+        this.rebalances = Counter.builder("consumer.rebalances")
+                .description("Partition assignments received (initial join included)")
+                .register(registry);
+        this.revokedPartitions = Counter.builder("consumer.rebalance.partitions")
+                .description("Partitions moved by rebalances")
+                .tag("action", "revoked")
+                .register(registry);
+        this.assignedPartitions = Counter.builder("consumer.rebalance.partitions")
+                .description("Partitions moved by rebalances")
+                .tag("action", "assigned")
+                .register(registry);
+    }
+
+    /**
+     * Retour d'un poll() sur le thread courant
+     */
+    public void polled() {
+        long now = System.nanoTime();
+        Long previous = lastPollNanos.get();
+        if (previous != null) {
+            pollInterval.record(now - previous, TimeUnit.NANOSECONDS);
+        }
+        lastPollNanos.set(now);
+    }
+
+    /**
+     * Instant du dernier poll() du thread courant (à capturer avant de passer la main à un autre thread)
+     */
+    public long lastPollNanos() {
+        Long last = lastPollNanos.get();
+        return last != null ? last : System.nanoTime();
+    }
+
+    public void recordProcessing(long nanos) {
+        processing.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Message traité : polledAtNanos est l'instant du poll() qui l'a ramené
+     */
+    public void recordProcessed(String topic, int partition, long polledAtNanos) {
+        PartitionState state = state(new TopicPartition(topic, partition));
+        state.records.increment();
+        state.pollToProcess.record(System.nanoTime() - polledAtNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Offsets commités et de fin de partition (source : AdminClient ou checkpoint)
+     */
+    public void updateOffsets(TopicPartition partition, long committed, long end) {
+        PartitionState state = state(partition);
+        state.committed = committed;
+        state.end = end;
+    }
+
+    /**
+     * Début de révocation sur le thread du consumer. En rebalancing coopératif, seules les
+     * partitions qui changent de propriétaire sont révoquées : le thread continue de consommer
+     * les autres. S'il n'en garde aucune (protocole eager), il est arrêté jusqu'à la prochaine
+     * assignation.
+     */
+    public void rebalanceStarted(Collection<TopicPartition> revoked) {
+        long now = System.nanoTime();
+        rebalanceStartNanos.set(now);
+        revokedPartitions.increment(revoked.size());
+        revoked.forEach(partition -> state(partition).assigned = false);
+        Set<TopicPartition> kept = owned.get();
+        kept.removeAll(revoked);
+        if (kept.isEmpty()) {
+            stalledSinceNanos.set(now);
+        }
+    }
+
+    /**
+     * Fin de révocation : messages en cours terminés et offsets des partitions rendues commités
+     */
+    public void revocationCompleted() {
+        Long start = rebalanceStartNanos.get();
+        if (start == null) {
+            return;
+        }
+        long nanos = System.nanoTime() - start;
+        revocation.record(nanos, TimeUnit.NANOSECONDS);
+        if (stalledSinceNanos.get() == null) {
+            // Partitions conservées : la consommation reprend dès la fin de la révocation
+            recordPause(nanos);
+        }
+    }
+
+    public void partitionsAssigned(Collection<TopicPartition> assigned) {
+        long now = System.nanoTime();
+        rebalances.increment();
+        assignedPartitions.increment(assigned.size());
+        Long start = rebalanceStartNanos.get();
+        if (start != null) {
+            long nanos = now - start;
+            rebalanceDuration.record(nanos, TimeUnit.NANOSECONDS);
+            lastRebalanceMs = nanos / 1_000_000.0;
+            rebalanceStartNanos.remove();
+        }
+        Long stalledSince = stalledSinceNanos.get();
+        if (stalledSince != null) {
+            recordPause(now - stalledSince);
+            stalledSinceNanos.remove();
+        }
+        owned.get().addAll(assigned);
+        assigned.forEach(partition -> state(partition).assigned = true);
+    }
+
+    public void partitionsLost(Collection<TopicPartition> lost) {
+        owned.get().removeAll(lost);
+        lost.forEach(partition -> state(partition).assigned = false);
+    }
+
+    private void recordPause(long nanos) {
+        rebalancePause.record(nanos, TimeUnit.NANOSECONDS);
+        lastPauseMs = nanos / 1_000_000.0;
+    }
+
+    /**
+     * Débit par partition sur la dernière période (pour la vue JSON ; Prometheus utilise rate())
+     */
+    @Scheduled(fixedRateString = "${kafka.consumer.metrics.interval-ms:10000}")
+    public synchronized void updateRates() {
+        long now = System.nanoTime();
+        double seconds = (now - lastRateNanos) / 1_000_000_000.0;
+        lastRateNanos = now;
+        for (PartitionState state : partitions.values()) {
+            long count = (long) state.records.count();
+            state.rate = seconds > 0 ? (count - state.lastCount) / seconds : 0.0;
+            state.lastCount = count;
+        }
+    }
+
+    /**
+     * Lag total connu, toutes partitions confondues (-1 si le lag n'a pas encore été mesuré)
+     */
+    public long totalLag() {
+        long total = 0;
+        boolean known = false;
+        for (PartitionState state : partitions.values()) {
+            if (state.end >= 0) {
+                total += Math.max(0, state.lag());
+                known = true;
+            }
+        }
+        return known ? total : -1;
+    }
+
+    /**
+     * Nombre de partitions actuellement assignées à cette instance
+     */
+    public int assignedPartitions() {
+        int count = 0;
+        for (PartitionState state : partitions.values()) {
+            if (state.assigned) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public ConsumerStats snapshot() {
+        List<PartitionStats> stats = new ArrayList<>();
+        long totalLag = 0;
+        double totalRate = 0;
+        for (Map.Entry<TopicPartition, PartitionState> entry : partitions.entrySet()) {
+            PartitionState state = entry.getValue();
+            HistogramSnapshot latency = state.pollToProcess.takeSnapshot();
+
+            PartitionStats partition = new PartitionStats();
+            partition.setTopic(entry.getKey().topic());
+            partition.setPartition(entry.getKey().partition());
+            partition.setAssigned(state.assigned);
+            partition.setCommittedOffset(state.committed);
+            partition.setEndOffset(state.end);
+            partition.setLag(state.lag());
+            partition.setRecords((long) state.records.count());
+            partition.setRecordsPerSecond(state.rate);
+            partition.setPollToProcessP50Ms(percentileMs(latency, 0.5));
+            partition.setPollToProcessP99Ms(percentileMs(latency, 0.99));
+            partition.setPollToProcessMaxMs(latency.max(TimeUnit.MILLISECONDS));
+            stats.add(partition);
+
+            totalLag += Math.max(0, state.lag());
+            totalRate += state.rate;
+        }
+        stats.sort(Comparator.comparing(PartitionStats::getTopic).thenComparingInt(PartitionStats::getPartition));
+
+        ConsumerStats result = new ConsumerStats();
+        result.setTotalLag(totalLag);
+        result.setRecordsPerSecond(totalRate);
+        result.setRebalances((long) rebalances.count());
+        result.setRebalanceTotalMs(rebalanceDuration.totalTime(TimeUnit.MILLISECONDS));
+        result.setLastRebalanceMs(lastRebalanceMs);
+        result.setPartitionsRevoked((long) revokedPartitions.count());
+        result.setLastPauseMs(lastPauseMs);
+        result.setRebalancePause(summary(rebalancePause));
+        result.setPollInterval(summary(pollInterval));
+        result.setProcessing(summary(processing));
+        result.setPartitions(stats);
+        return result;
+    }
+
+    private PartitionState state(TopicPartition partition) {
+        return partitions.computeIfAbsent(partition, this::register);
+    }
+
+    private PartitionState register(TopicPartition partition) {
+        String topic = partition.topic();
+        String number = String.valueOf(partition.partition());
+        PartitionState state = new PartitionState(
+                Counter.builder("consumer.records")
+                        .description("Records processed")
+                        .tag("topic", topic).tag("partition", number)
+                        .register(registry),
+                timer("consumer.poll.to.process", "Time from poll() return to end of processing")
+                        .tag("topic", topic).tag("partition", number)
+                        .register(registry));
+        Gauge.builder("consumer.offset.committed", state, s -> s.committed)
+                .description("Committed offset (next record to read)")
+                .tag("topic", topic).tag("partition", number)
+                .register(registry);
+        Gauge.builder("consumer.offset.end", state, s -> s.end)
+                .description("Log end offset")
+                .tag("topic", topic).tag("partition", number)
+                .register(registry);
+        Gauge.builder("consumer.lag", state, s -> s.end >= 0 ? s.lag() : Double.NaN)
+                .description("Records not yet committed (end - committed)")
+                .tag("topic", topic).tag("partition", number)
+                .register(registry);
+        return state;
+    }
+
+    private static Timer.Builder timer(String name, String description) {
+        return Timer.builder(name)
+                .description(description)
+                .publishPercentiles(0.5, 0.99)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_EXPECTED)
+                .maximumExpectedValue(MAX_EXPECTED);
+    }
+
+    private static Map<String, Double> summary(Timer timer) {
+        HistogramSnapshot snapshot = timer.takeSnapshot();
+        Map<String, Double> summary = new LinkedHashMap<>();
+        summary.put("count", (double) snapshot.count());
+        summary.put("p50Ms", percentileMs(snapshot, 0.5));
+        summary.put("p99Ms", percentileMs(snapshot, 0.99));
+        summary.put("maxMs", snapshot.max(TimeUnit.MILLISECONDS));
+        summary.put("meanMs", snapshot.mean(TimeUnit.MILLISECONDS));
+        return summary;
+    }
+
+    private static double percentileMs(HistogramSnapshot snapshot, double percentile) {
+        for (ValueAtPercentile value : snapshot.percentileValues()) {
+            if (value.percentile() == percentile) {
+                return value.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return Double.NaN;
+    }
+
+    private static final class PartitionState {
+        private final Counter records;
+        private final Timer pollToProcess;
+        private volatile long committed = -1;
+        private volatile long end = -1;
+        private volatile boolean assigned;
+        private volatile double rate;
+        private long lastCount;
+
+        private PartitionState(Counter records, Timer pollToProcess) {
+            this.records = records;
+            this.pollToProcess = pollToProcess;
+        }
+
+        private long lag() {
+            return end < 0 ? -1 : end - Math.max(0, committed);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.kafka.training.scalableconsumer.metrics;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.springframework.kafka.core.ConsumerPostProcessor;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Horodate chaque retour de poll() pour ConsumerMetrics, y compris les poll() vides
+ *
+ * Un ConsumerInterceptor ne verrait que les poll() qui ramènent des messages : après une
+ * période sans messages, l'intervalle mesuré couvrirait toute la période. Le consumer
+ * créé par le container est donc enveloppé (ConsumerPostProcessor) : poll() est chronométré
+ * sur le thread du container, c'est aussi le point de départ de la latence poll → traitement.
+ */
+public class PollTimingConsumer<K, V> implements ConsumerPostProcessor<K, V> {
+
+    private final ConsumerMetrics metrics;
+
+    public PollTimingConsumer(ConsumerMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Consumer<K, V> apply(Consumer<K, V> consumer) {
+        InvocationHandler handler = (proxy, method, args) -> invoke(consumer, method, args);
+        return (Consumer<K, V>) Proxy.newProxyInstance(Consumer.class.getClassLoader(),
+                new Class<?>[]{Consumer.class}, handler);
+    }
+
+    private Object invoke(Consumer<K, V> consumer, Method method, Object[] args) throws Throwable {
+        Object result;
+        try {
+            result = method.invoke(consumer, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+        if ("poll".equals(method.getName())) {
+            metrics.polled();
+        }
+        return result;
+    }
+}
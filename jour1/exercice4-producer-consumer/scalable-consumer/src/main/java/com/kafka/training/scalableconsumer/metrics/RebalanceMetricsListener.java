@@ -0,0 +1,61 @@
+package com.kafka.training.scalableconsumer.metrics;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+
+import java.util.Collection;
+
+/**
+ * Compte et chronomètre les rebalancings (révocation → nouvelle assignation),
+ * puis délègue éventuellement à un autre listener (mode parallel)
+ *
+ * Déroulement d'une révocation, sur le thread du consumer :
+ * 1. onPartitionsRevokedBeforeCommit : le délégué attend la fin des messages en cours
+ *    des partitions révoquées (mode parallel)
+ * 2. le container commite de façon synchrone les offsets traités (commits manuels)
+ * 3. onPartitionsRevokedAfterCommit : fin de la révocation, la consommation des
+ *    partitions conservées reprend
+ */
+public class RebalanceMetricsListener implements ConsumerAwareRebalanceListener {
+
+    private final ConsumerMetrics metrics;
+    private final ConsumerAwareRebalanceListener delegate;
+
+    public RebalanceMetricsListener(ConsumerMetrics metrics, ConsumerAwareRebalanceListener delegate) {
+        this.metrics = metrics;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        metrics.rebalanceStarted(partitions);
+        if (delegate != null) {
+            delegate.onPartitionsRevokedBeforeCommit(consumer, partitions);
+        }
+    }
+
+    @Override
+    public void onPartitionsRevokedAfterCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        if (delegate != null) {
+            delegate.onPartitionsRevokedAfterCommit(consumer, partitions);
+        }
+        metrics.revocationCompleted();
+    }
+
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        metrics.partitionsAssigned(partitions);
+        if (delegate != null) {
+            delegate.onPartitionsAssigned(consumer, partitions);
+        }
+    }
+
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        metrics.partitionsLost(partitions);
+        if (delegate != null) {
+            delegate.onPartitionsLost(consumer, partitions);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.kafka.training.scalableconsumer.model;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Vue JSON des métriques de consommation de l'instance (GET /api/consumer/stats)
+ */
+public class ConsumerStats {
+    private String application;
+    private String mode;
+    private int concurrency;
+    private long totalLag;
+    private double recordsPerSecond;
+    private long rebalances;
+    private double rebalanceTotalMs;
+    private double lastRebalanceMs;
+    private long partitionsRevoked;
+    private double lastPauseMs;
+    private Map<String, Double> rebalancePause;
+    private Map<String, Double> pollInterval;
+    private Map<String, Double> processing;
+    private List<PartitionStats> partitions;
+
+    public ConsumerStats() {
+    }
+
+    public String getApplication() {
+        return application;
+    }
+
+    public void setApplication(String application) {
+        this.application = application;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public void setMode(String mode) {
+        this.mode = mode;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    public long getTotalLag() {
+        return totalLag;
+    }
+
+    public void setTotalLag(long totalLag) {
+        this.totalLag = totalLag;
+    }
+
+    public double getRecordsPerSecond() {
+        return recordsPerSecond;
+    }
+
+    public void setRecordsPerSecond(double recordsPerSecond) {
+        this.recordsPerSecond = recordsPerSecond;
+    }
+
+    public long getRebalances() {
+        return rebalances;
+    }
+
+    public void setRebalances(long rebalances) {
+        this.rebalances = rebalances;
+    }
+
+    public double getRebalanceTotalMs() {
+        return rebalanceTotalMs;
+    }
+
+    public void setRebalanceTotalMs(double rebalanceTotalMs) {
+        this.rebalanceTotalMs = rebalanceTotalMs;
+    }
+
+    public double getLastRebalanceMs() {
+        return lastRebalanceMs;
+    }
+
+    public void setLastRebalanceMs(double lastRebalanceMs) {
+        this.lastRebalanceMs = lastRebalanceMs;
+    }
+
+    public long getPartitionsRevoked() {
+        return partitionsRevoked;
+    }
+
+    public void setPartitionsRevoked(long partitionsRevoked) {
+        this.partitionsRevoked = partitionsRevoked;
+    }
+
+    public double getLastPauseMs() {
+        return lastPauseMs;
+    }
+
+    public void setLastPauseMs(double lastPauseMs) {
+        this.lastPauseMs = lastPauseMs;
+    }
+
+    public Map<String, Double> getRebalancePause() {
+        return rebalancePause;
+    }
+
+    public void setRebalancePause(Map<String, Double> rebalancePause) {
+        this.rebalancePause = rebalancePause;
+    }
+
+    public Map<String, Double> getPollInterval() {
+        return pollInterval;
+    }
+
+    public void setPollInterval(Map<String, Double> pollInterval) {
+        this.pollInterval = pollInterval;
+    }
+
+    public Map<String, Double> getProcessing() {
+        return processing;
+    }
+
+    public void setProcessing(Map<String, Double> processing) {
+        this.processing = processing;
+    }
+
+    public List<PartitionStats> getPartitions() {
+        return partitions;
+    }
+
+    public void setPartitions(List<PartitionStats> partitions) {
+        this.partitions = partitions;
+    }
+}
@@ -0,0 +1,109 @@
+package com.kafka.training.scalableconsumer.model;
+
+/**
+ * Position, lag et débit d'une partition
+ */
+public class PartitionStats {
+    private String topic;
+    private int partition;
+    private boolean assigned;
+    private long committedOffset;
+    private long endOffset;
+    private long lag;
+    private long records;
+    private double recordsPerSecond;
+    private double pollToProcessP50Ms;
+    private double pollToProcessP99Ms;
+    private double pollToProcessMaxMs;
+
+    public PartitionStats() {
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public void setTopic(String topic) {
+        this.topic = topic;
+    }
+
+    public int getPartition() {
+        return partition;
+    }
+
+    public void setPartition(int partition) {
+        this.partition = partition;
+    }
+
+    public boolean isAssigned() {
+        return assigned;
+    }
+
+    public void setAssigned(boolean assigned) {
+        this.assigned = assigned;
+    }
+
+    public long getCommittedOffset() {
+        return committedOffset;
+    }
+
+    public void setCommittedOffset(long committedOffset) {
+        this.committedOffset = committedOffset;
+    }
+
+    public long getEndOffset() {
+        return endOffset;
+    }
+
+    public void setEndOffset(long endOffset) {
+        this.endOffset = endOffset;
+    }
+
+    public long getLag() {
+        return lag;
+    }
+
+    public void setLag(long lag) {
+        this.lag = lag;
+    }
+
+    public long getRecords() {
+        return records;
+    }
+
+    public void setRecords(long records) {
+        this.records = records;
+    }
+
+    public double getRecordsPerSecond() {
+        return recordsPerSecond;
+    }
+
+    public void setRecordsPerSecond(double recordsPerSecond) {
+        this.recordsPerSecond = recordsPerSecond;
+    }
+
+    public double getPollToProcessP50Ms() {
+        return pollToProcessP50Ms;
+    }
+
+    public void setPollToProcessP50Ms(double pollToProcessP50Ms) {
+        this.pollToProcessP50Ms = pollToProcessP50Ms;
+    }
+
+    public double getPollToProcessP99Ms() {
+        return pollToProcessP99Ms;
+    }
+
+    public void setPollToProcessP99Ms(double pollToProcessP99Ms) {
+        this.pollToProcessP99Ms = pollToProcessP99Ms;
+    }
+
+    public double getPollToProcessMaxMs() {
+        return pollToProcessMaxMs;
+    }
+
+    public void setPollToProcessMaxMs(double pollToProcessMaxMs) {
+        this.pollToProcessMaxMs = pollToProcessMaxMs;
+    }
+}
@@ -0,0 +1,149 @@
+package com.kafka.training.scalableconsumer.service;
+
+import com.kafka.training.scalableconsumer.metrics.ConsumerMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ajuste le nombre de threads consumer de l'instance selon le lag du groupe
+ *
+ * - Montée : lag par thread >= scale-up-lag-per-thread pendant up-checks vérifications
+ *   consécutives → un thread de plus
+ * - Descente : lag total <= scale-down-lag pendant down-checks vérifications
+ *   consécutives → un thread de moins
+ * - Plafond : partitions assignées à l'instance (un thread de plus resterait sans
+ *   partition) et max-concurrency ; plancher : min-concurrency
+ * - Après chaque changement, aucune décision pendant cooldown-ms
+ *
+ * Les seuils différents et les vérifications consécutives évitent d'osciller autour
+ * d'une valeur. La concurrence d'un container n'est prise en compte qu'à son démarrage :
+ * chaque changement arrête puis redémarre le container, ce qui provoque un rebalancing.
+ */
+@Component
+public class ConcurrencyAutoscaler {
+
+    private static final Logger log = LoggerFactory.getLogger(ConcurrencyAutoscaler.class);
+
+    private final KafkaListenerEndpointRegistry registry;
+    private final ConsumerMetrics metrics;
+    private final Counter scaleUps;
+    private final Counter scaleDowns;
+
+    @Value("${kafka.consumer.autoscale.enabled:false}")
+    private boolean enabled;
+
+    @Value("${kafka.consumer.autoscale.min-concurrency:1}")
+    private int minConcurrency;
+
+    @Value("${kafka.consumer.autoscale.max-concurrency:8}")
+    private int maxConcurrency;
+
+    @Value("${kafka.consumer.autoscale.scale-up-lag-per-thread:500}")
+    private long scaleUpLagPerThread;
+
+    @Value("${kafka.consumer.autoscale.scale-down-lag:50}")
+    private long scaleDownLag;
+
+    @Value("${kafka.consumer.autoscale.up-checks:2}")
+    private int upChecks;
+
+    @Value("${kafka.consumer.autoscale.down-checks:6}")
+    private int downChecks;
+
+    @Value("${kafka.consumer.autoscale.cooldown-ms:60000}")
+    private long cooldownMs;
+
+    private int aboveCount;
+    private int belowCount;
+    private long lastChangeMillis;
+
+    public ConcurrencyAutoscaler(KafkaListenerEndpointRegistry registry, ConsumerMetrics metrics,
+                                 MeterRegistry meterRegistry) {
+        this.registry = registry;
+        this.metrics = metrics;
+        Gauge.builder("consumer.concurrency", this, ConcurrencyAutoscaler::getCurrentConcurrency)
+                .description("Consumer threads of the running listener container")
+                .register(meterRegistry);
+        this.scaleUps = Counter.builder("consumer.autoscale.events")
+                .description("Concurrency changes made by the autoscaler")
+                .tag("direction", "up")
+                .register(meterRegistry);
+        this.scaleDowns = Counter.builder("consumer.autoscale.events")
+                .description("Concurrency changes made by the autoscaler")
+                .tag("direction", "down")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedRateString = "${kafka.consumer.autoscale.interval-ms:10000}",
+            initialDelayString = "${kafka.consumer.autoscale.interval-ms:10000}")
+    public synchronized void evaluate() {
+        if (!enabled) {
+            return;
+        }
+        ConcurrentMessageListenerContainer<?, ?> container = runningContainer();
+        long lag = metrics.totalLag();
+        if (container == null || lag < 0) {
+            return;
+        }
+        if (System.currentTimeMillis() - lastChangeMillis < cooldownMs) {
+            return;
+        }
+
+        int current = container.getConcurrency();
+        int ceiling = Math.max(minConcurrency, Math.min(maxConcurrency, metrics.assignedPartitions()));
+
+        if (lag / current >= scaleUpLagPerThread && current < ceiling) {
+            belowCount = 0;
+            if (++aboveCount >= upChecks) {
+                resize(container, current + 1, lag);
+                scaleUps.increment();
+            }
+        } else if (lag <= scaleDownLag && current > minConcurrency) {
+            aboveCount = 0;
+            if (++belowCount >= downChecks) {
+                resize(container, current - 1, lag);
+                scaleDowns.increment();
+            }
+        } else {
+            aboveCount = 0;
+            belowCount = 0;
+        }
+    }
+
+    public int getCurrentConcurrency() {
+        ConcurrentMessageListenerContainer<?, ?> container = runningContainer();
+        return container != null ? container.getConcurrency() : 0;
+    }
+
+    private void resize(ConcurrentMessageListenerContainer<?, ?> container, int target, long lag) {
+        log.info("⚖️ Lag du groupe {} : concurrence {} → {} threads", lag, container.getConcurrency(), target);
+        // stop() attend l'arrêt des consumers (et le drain du mode parallel)
+        container.stop();
+        container.setConcurrency(target);
+        container.start();
+        aboveCount = 0;
+        belowCount = 0;
+        lastChangeMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * Le container actif : un seul des listeners démarre selon kafka.consumer.mode
+     */
+    private ConcurrentMessageListenerContainer<?, ?> runningContainer() {
+        for (MessageListenerContainer container : registry.getListenerContainers()) {
+            if (container.isRunning() && container instanceof ConcurrentMessageListenerContainer<?, ?> concurrent) {
+                return concurrent;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,89 @@
+package com.kafka.training.scalableconsumer.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool de workers qui préserve l'ordre par clé
+ *
+ * Chaque worker est un thread unique avec sa propre file : une clé est toujours
+ * routée vers le même worker (hash de la clé), donc ses messages sont traités dans
+ * l'ordre de la partition. Des clés différentes avancent en parallèle.
+ * Le nombre de messages en attente ou en cours est borné (max-pending) :
+ * au-delà, submit() bloque le thread du listener.
+ */
+@Component
+public class KeyOrderedExecutor {
+
+    private final ExecutorService[] lanes;
+    private final Semaphore pending;
+    private final int maxPending;
+
+    public KeyOrderedExecutor(
+            @Value("${kafka.consumer.parallel.workers:16}") int workers,
+            @Value("${kafka.consumer.parallel.max-pending:1000}") int maxPending) {
+        if (workers < 1 || maxPending < 1) {
+            throw new IllegalArgumentException("workers et max-pending doivent être >= 1");
+        }
+        this.lanes = new ExecutorService[workers];
+        AtomicInteger threadNumber = new AtomicInteger();
+        for (int i = 0; i < workers; i++) {
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+                Thread thread = new Thread(r, "key-worker-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        this.maxPending = maxPending;
+        this.pending = new Semaphore(maxPending);
+    }
+
+    /**
+     * Réserve une place pour un message, en attendant au plus timeoutMs
+     *
+     * @return false si le pool est toujours plein après timeoutMs
+     */
+    public boolean tryReserve(long timeoutMs) throws InterruptedException {
+        return pending.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Exécute la tâche sur le worker de la clé (place réservée via tryReserve)
+     *
+     * @param key         clé du message, ou null (routage par offset, sans contrainte d'ordre)
+     * @param fallbackHash utilisé quand la clé est null
+     */
+    public void execute(String key, long fallbackHash, Runnable task) {
+        int hash = key != null ? key.hashCode() : Long.hashCode(fallbackHash);
+        lanes[Math.floorMod(hash, lanes.length)].execute(() -> {
+            try {
+                task.run();
+            } finally {
+                pending.release();
+            }
+        });
+    }
+
+    public int getWorkers() {
+        return lanes.length;
+    }
+
+    public int getPending() {
+        return maxPending - pending.availablePermits();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+    }
+}
@@ -1,17 +1,21 @@
 package com.kafka.training.scalableconsumer.service;
 
+import com.kafka.training.scalableconsumer.metrics.ConsumerMetrics;
 import com.kafka.training.scalableconsumer.model.Message;
+import com.kafka.training.scalableconsumer.trace.RecordTracer;
+import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Service;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 @Service
 public class MessageConsumerService {
@@ -21,9 +25,21 @@ public class MessageConsumerService {
     @Value("${spring.application.name:scalable-consumer}")
     private String applicationName;
 
+    @Value("${kafka.consumer.processing-time-ms:100}")
+    private long processingTimeMs;
+
     private final String instanceId;
+    private final ThroughputReporter throughput;
+    private final ParallelMessageProcessor parallelProcessor;
+    private final RecordTracer tracer;
+    private final ConsumerMetrics metrics;
 
-    public MessageConsumerService() {
+    public MessageConsumerService(ThroughputReporter throughput, ParallelMessageProcessor parallelProcessor,
+                                  RecordTracer tracer, ConsumerMetrics metrics) {
+        this.throughput = throughput;
+        this.parallelProcessor = parallelProcessor;
+        this.tracer = tracer;
+        this.metrics = metrics;
         // Générer un ID unique pour cette instance
         String tempInstanceId;
         try {
@@ -43,33 +59,114 @@ public class MessageConsumerService {
      * - Rebalancing automatique en cas d'ajout/suppression d'instances
      * - Chaque message est consommé par UNE SEULE instance du groupe
      * - Scalabilité horizontale: ajoutez plus d'instances pour augmenter le débit
+     *
+     * Actif en mode single (kafka.consumer.mode=single, par défaut).
+     * Le détail de chaque message passe par RecordTracer (échantillonné, asynchrone).
+     */
+    @KafkaListener(
+            topics = "${kafka.consumer.topic:messages}",
+            groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = "kafkaListenerContainerFactory",
+            batch = "false",
+            autoStartup = "#{'${kafka.consumer.mode:single}' == 'single'}"
+    )
+    public void consumeMessages(ConsumerRecord<String, Message> record) {
+        handleRecord(record, metrics.lastPollNanos());
+    }
+
+    /**
+     * Consumer en mode batch (kafka.consumer.mode=batch)
+     *
+     * Reçoit d'un coup tous les messages renvoyés par un poll() (au plus
+     * kafka.consumer.batch.max-size) : une seule ligne de log et un seul
+     * traitement groupé par lot au lieu d'un par message.
+     * Pas d'auto-commit : le conteneur (AckMode.BATCH) commite les offsets du lot par
+     * un commitSync dès que cette méthode a rendu la main, donc après le traitement de
+     * tout le lot et avant le poll() suivant. Sur exception, rien n'est commité : le
+     * DefaultErrorHandler rejoue le lot (9 fois) puis le journalise et passe à la suite.
+     */
+    @KafkaListener(
+            topics = "${kafka.consumer.topic:messages}",
+            groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = "kafkaListenerContainerFactory",
+            batch = "true",
+            autoStartup = "#{'${kafka.consumer.mode:single}' == 'batch'}"
+    )
+    public void consumeMessageBatch(List<ConsumerRecord<String, Message>> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+
+        // Plage d'offsets reçue par partition, pour le suivi dans les logs
+        Map<Integer, long[]> offsets = new TreeMap<>();
+        for (ConsumerRecord<String, Message> record : records) {
+            offsets.merge(record.partition(), new long[]{record.offset(), record.offset()},
+                    (range, next) -> new long[]{Math.min(range[0], next[0]), Math.max(range[1], next[1])});
+        }
+        StringBuilder ranges = new StringBuilder();
+        offsets.forEach((partition, range) ->
+                ranges.append(" p").append(partition).append('[').append(range[0]).append("..").append(range[1]).append(']'));
+        log.info("📦 [Instance: {}] Lot de {} messages reçu -{}", instanceId, records.size(), ranges);
+        records.forEach(tracer::trace);
+
+        long polledAt = metrics.lastPollNanos();
+        long start = System.nanoTime();
+        processMessages(records.stream().map(ConsumerRecord::value).toList());
+        metrics.recordProcessing(System.nanoTime() - start);
+        records.forEach(record -> metrics.recordProcessed(record.topic(), record.partition(), polledAt));
+        throughput.record(records.size());
+    }
+
+    /**
+     * Consumer en mode parallel (kafka.consumer.mode=parallel)
+     *
+     * Les messages du lot sont traités un par un comme en mode single, mais sur
+     * kafka.consumer.parallel.workers threads : les messages d'une même clé restent
+     * dans l'ordre, des clés différentes avancent en parallèle. Le débit d'une
+     * partition passe de 1 / 100 ms à workers / 100 ms sans ajouter de partitions.
      */
     @KafkaListener(
             topics = "${kafka.consumer.topic:messages}",
             groupId = "${spring.kafka.consumer.group-id}",
-            containerFactory = "kafkaListenerContainerFactory"
+            containerFactory = "kafkaListenerContainerFactory",
+            batch = "true",
+            autoStartup = "#{'${kafka.consumer.mode:single}' == 'parallel'}"
     )
-    public void consumeMessages(
-            ConsumerRecord<String, Message> record,
-            @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
-            @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
-            @Header(KafkaHeaders.GROUP_ID) String groupId) {
-
-        log.info("╔════════════════════════════════════════════════════════════════╗");
-        log.info("║ 📩 Message reçu - Consumer Group Mode                         ║");
-        log.info("╠════════════════════════════════════════════════════════════════╣");
-        log.info("║ Instance ID  : {}", String.format("%-45s", instanceId));
-        log.info("║ Group ID     : {}", String.format("%-45s", groupId));
-        log.info("║ Topic        : {}", String.format("%-45s", topic));
-        log.info("║ Partition    : {}", String.format("%-45s", partition));
-        log.info("║ Offset       : {}", String.format("%-45s", record.offset()));
-        log.info("║ Key          : {}", String.format("%-45s", record.key()));
-        log.info("╠════════════════════════════════════════════════════════════════╣");
-        log.info("║ Message      : {}", record.value());
-        log.info("╚════════════════════════════════════════════════════════════════╝");
+    public void consumeMessagesInParallel(List<ConsumerRecord<String, Message>> records, Consumer<?, ?> consumer)
+            throws InterruptedException {
+        log.info("🔀 [Instance: {}] Lot de {} messages distribué sur les workers", instanceId, records.size());
+        // Capturé sur le thread du listener : les workers n'ont pas accès à son ThreadLocal
+        long polledAt = metrics.lastPollNanos();
+        parallelProcessor.dispatch(records, consumer, record -> handleRecord(record, polledAt));
+    }
+
+    /**
+     * Traitement unitaire (modes single et parallel) : trace, traitement, métriques
+     */
+    private void handleRecord(ConsumerRecord<String, Message> record, long polledAtNanos) {
+        tracer.trace(record);
 
         // Traitement du message
-        processMessage(record.value(), partition);
+        long start = System.nanoTime();
+        processMessage(record.value(), record.partition());
+        metrics.recordProcessing(System.nanoTime() - start);
+        metrics.recordProcessed(record.topic(), record.partition(), polledAtNanos);
+        throughput.record(1);
+    }
+
+    /**
+     * Traite un lot de messages en une seule opération
+     * (ex : un INSERT multi-lignes ou un appel d'API bulk au lieu de N appels)
+     */
+    private void processMessages(List<Message> messages) {
+        try {
+            // Simuler un traitement groupé : même coût fixe qu'un message unitaire
+            Thread.sleep(processingTimeMs);
+            log.debug("✅ [Instance: {}] Lot traité: {} messages", instanceId, messages.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("❌ Erreur lors du traitement du lot", e);
+        }
     }
 
     /**
@@ -78,7 +175,7 @@ public class MessageConsumerService {
     private void processMessage(Message message, int partition) {
         try {
             // Simuler un traitement
-            Thread.sleep(100);
+            Thread.sleep(processingTimeMs);
             log.debug("✅ [Instance: {}] Message traité: {} (Partition: {})",
                     instanceId, message.getId(), partition);
         } catch (InterruptedException e) {
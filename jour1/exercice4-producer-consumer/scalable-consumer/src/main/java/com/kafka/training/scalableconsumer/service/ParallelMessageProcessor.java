@@ -0,0 +1,181 @@
+package com.kafka.training.scalableconsumer.service;
+
+import com.kafka.training.scalableconsumer.model.Message;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.event.ListenerContainerIdleEvent;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Traitement parallèle d'une partition avec ordre par clé
+ *
+ * Le thread du listener distribue les messages d'un poll() sur les workers du
+ * KeyOrderedExecutor puis rend la main : le débit n'est plus limité à un message
+ * à la fois par partition, sans repartitionner le topic.
+ *
+ * Les offsets sont commités manuellement (enable.auto.commit=false, AckMode.MANUAL)
+ * jusqu'au plus haut offset contigu terminé de chaque partition : après un crash,
+ * les messages en cours sont relus (au moins une fois), aucun n'est perdu.
+ * Le consumer n'étant pas thread-safe, tous les commits sont faits depuis le thread
+ * du listener : après chaque lot, pendant l'attente d'une place dans le pool, sur
+ * les événements d'inactivité du container et à la révocation des partitions.
+ */
+@Component
+public class ParallelMessageProcessor implements ConsumerAwareRebalanceListener {
+
+    private static final Logger log = LoggerFactory.getLogger(ParallelMessageProcessor.class);
+
+    private static final long RESERVE_POLL_MS = 100;
+
+    private final KeyOrderedExecutor executor;
+    private final Map<TopicPartition, PartitionOffsetTracker> trackers = new ConcurrentHashMap<>();
+
+    @Value("${kafka.consumer.parallel.drain-timeout-ms:10000}")
+    private long drainTimeoutMs;
+
+    public ParallelMessageProcessor(KeyOrderedExecutor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Distribue un lot sur les workers (appelé depuis le thread du listener)
+     */
+    public void dispatch(List<ConsumerRecord<String, Message>> records, Consumer<?, ?> consumer,
+                         java.util.function.Consumer<ConsumerRecord<String, Message>> handler)
+            throws InterruptedException {
+        for (ConsumerRecord<String, Message> record : records) {
+            // Pool plein : on commite ce qui s'est terminé en attendant une place
+            while (!executor.tryReserve(RESERVE_POLL_MS)) {
+                commitCompleted(consumer);
+            }
+            TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+            PartitionOffsetTracker tracker = trackers.computeIfAbsent(partition, p -> new PartitionOffsetTracker());
+            tracker.dispatched(record.offset());
+            executor.execute(record.key(), record.offset(), () -> {
+                try {
+                    handler.accept(record);
+                } catch (RuntimeException e) {
+                    log.error("❌ Échec du traitement de {}-{}@{}, message ignoré",
+                            record.topic(), record.partition(), record.offset(), e);
+                } finally {
+                    tracker.completed(record.offset());
+                }
+            });
+        }
+        commitCompleted(consumer);
+    }
+
+    /**
+     * Commit asynchrone des offsets terminés des partitions assignées à ce consumer
+     */
+    public void commitCompleted(Consumer<?, ?> consumer) {
+        Map<TopicPartition, OffsetAndMetadata> offsets = commitableOffsets(consumer.assignment());
+        if (offsets.isEmpty()) {
+            return;
+        }
+        consumer.commitAsync(offsets, (committed, exception) -> {
+            if (exception != null) {
+                log.warn("⚠️ Échec du commit {} : {}", committed, exception.getMessage());
+            }
+        });
+        markCommitted(offsets);
+    }
+
+    /**
+     * Commit périodique quand le container ne reçoit plus rien
+     * (le listener n'est pas invoqué sans messages)
+     */
+    @EventListener
+    public void onIdle(ListenerContainerIdleEvent event) {
+        if (event.getConsumer() != null) {
+            commitCompleted(event.getConsumer());
+        }
+    }
+
+    /**
+     * Avant de rendre des partitions : on laisse les workers terminer leurs messages
+     * (au plus drain-timeout-ms) et on commite de façon synchrone, pour que le
+     * prochain propriétaire reprenne au bon offset
+     */
+    @Override
+    public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        long deadline = System.currentTimeMillis() + drainTimeoutMs;
+        while (inProgress(partitions) > 0 && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        int remaining = inProgress(partitions);
+        if (remaining > 0) {
+            log.warn("⚠️ {} messages encore en cours sur {} après {} ms, ils seront relus par le prochain consumer",
+                    remaining, partitions, drainTimeoutMs);
+        }
+
+        Map<TopicPartition, OffsetAndMetadata> offsets = commitableOffsets(partitions);
+        if (!offsets.isEmpty()) {
+            try {
+                consumer.commitSync(offsets);
+                log.info("✅ Offsets commités avant révocation: {}", offsets);
+            } catch (RuntimeException e) {
+                log.warn("⚠️ Échec du commit avant révocation : {}", e.getMessage());
+            }
+        }
+        partitions.forEach(trackers::remove);
+    }
+
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        // Partitions déjà réassignées : commiter n'est plus possible
+        partitions.forEach(trackers::remove);
+    }
+
+    private Map<TopicPartition, OffsetAndMetadata> commitableOffsets(Collection<TopicPartition> partitions) {
+        Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+        for (TopicPartition partition : partitions) {
+            PartitionOffsetTracker tracker = trackers.get(partition);
+            if (tracker != null) {
+                long offset = tracker.commitableOffset();
+                if (offset >= 0) {
+                    offsets.put(partition, new OffsetAndMetadata(offset));
+                }
+            }
+        }
+        return offsets;
+    }
+
+    private void markCommitted(Map<TopicPartition, OffsetAndMetadata> offsets) {
+        offsets.forEach((partition, offset) -> {
+            PartitionOffsetTracker tracker = trackers.get(partition);
+            if (tracker != null) {
+                tracker.committed(offset.offset());
+            }
+        });
+    }
+
+    private int inProgress(Collection<TopicPartition> partitions) {
+        int count = 0;
+        for (TopicPartition partition : partitions) {
+            PartitionOffsetTracker tracker = trackers.get(partition);
+            if (tracker != null) {
+                count += tracker.inProgress();
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,52 @@
+package com.kafka.training.scalableconsumer.service;
+
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Suivi des offsets d'une partition traitée en parallèle
+ *
+ * Les messages d'une même partition se terminent dans le désordre (clés différentes
+ * sur des workers différents). L'offset commitable est le plus petit offset encore
+ * en cours : tout ce qui le précède est terminé. S'il n'y a plus rien en cours, c'est
+ * le dernier offset distribué + 1.
+ *
+ * dispatched() et commitableOffset() sont appelés par le thread du listener,
+ * completed() par les workers.
+ */
+public class PartitionOffsetTracker {
+
+    private final ConcurrentSkipListSet<Long> inProgress = new ConcurrentSkipListSet<>();
+    private volatile long lastDispatched = -1;
+    private long lastCommitted = -1;
+
+    public void dispatched(long offset) {
+        inProgress.add(offset);
+        lastDispatched = offset;
+    }
+
+    public void completed(long offset) {
+        inProgress.remove(offset);
+    }
+
+    public int inProgress() {
+        return inProgress.size();
+    }
+
+    /**
+     * Prochain offset à commiter (offset du prochain message à lire),
+     * ou -1 si rien n'a avancé depuis le dernier commit
+     */
+    public long commitableOffset() {
+        // ceiling() plutôt que first() : l'ensemble peut se vider entre deux appels
+        Long lowest = inProgress.ceiling(Long.MIN_VALUE);
+        long next = lowest != null ? lowest : lastDispatched + 1;
+        if (lastDispatched < 0 || next <= lastCommitted) {
+            return -1;
+        }
+        return next;
+    }
+
+    public void committed(long offset) {
+        lastCommitted = Math.max(lastCommitted, offset);
+    }
+}
@@ -0,0 +1,65 @@
+package com.kafka.training.scalableconsumer.service;
+
+import com.kafka.training.scalableconsumer.trace.RecordTracer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Débit de consommation de l'instance (messages/s)
+ *
+ * Alimenté par les listeners (modes single, batch ou parallel), publié périodiquement dans
+ * les logs pour comparer les modes (et la trace activée ou non) sur la même charge.
+ */
+@Component
+public class ThroughputReporter {
+
+    private static final Logger log = LoggerFactory.getLogger(ThroughputReporter.class);
+
+    private final LongAdder records = new LongAdder();
+    private final LongAdder invocations = new LongAdder();
+    private final String mode;
+    private final RecordTracer tracer;
+
+    private long totalRecords;
+    private long lastReportNanos = System.nanoTime();
+
+    public ThroughputReporter(@Value("${kafka.consumer.mode:single}") String mode, RecordTracer tracer) {
+        this.mode = mode;
+        this.tracer = tracer;
+    }
+
+    /**
+     * Enregistre une invocation du listener ayant traité count messages
+     */
+    public void record(int count) {
+        records.add(count);
+        invocations.increment();
+    }
+
+    @Scheduled(fixedRateString = "${kafka.consumer.throughput-report-interval-ms:10000}",
+            initialDelayString = "${kafka.consumer.throughput-report-interval-ms:10000}")
+    public synchronized void report() {
+        long now = System.nanoTime();
+        long count = records.sumThenReset();
+        long calls = invocations.sumThenReset();
+        double elapsedSeconds = (now - lastReportNanos) / 1_000_000_000.0;
+        lastReportNanos = now;
+        if (count == 0) {
+            return;
+        }
+        totalRecords += count;
+        log.info("📈 Débit (mode {}, {}) : {} msg/s - {} messages en {} appels (moyenne {} msg/appel), total {}",
+                mode,
+                tracer.describe(),
+                String.format("%.1f", count / elapsedSeconds),
+                count,
+                calls,
+                String.format("%.1f", (double) count / calls),
+                totalRecords);
+    }
+}
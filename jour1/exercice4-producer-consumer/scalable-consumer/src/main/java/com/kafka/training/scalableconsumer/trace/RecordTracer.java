@@ -0,0 +1,200 @@
+package com.kafka.training.scalableconsumer.trace;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kafka.training.scalableconsumer.model.Message;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Trace des messages consommés : échantillonnée, asynchrone et structurée
+ *
+ * Le thread consumer ne fait que décider de l'échantillonnage et déposer une
+ * référence dans une file bornée. Un thread dédié formate une ligne JSON par
+ * message et l'écrit dans le logger "record-trace". Si la file est pleine, la trace
+ * est abandonnée plutôt que de ralentir la consommation.
+ *
+ * Échantillonnage : un message sur sample-every, puis au plus max-per-second traces
+ * par seconde (0 = pas de limite). Modifiable à chaud via JMX (jconsole → MBeans →
+ * com.kafka.training → RecordTracer).
+ */
+@Component
+@ManagedResource(objectName = "com.kafka.training:type=RecordTracer", description = "Trace des messages consommés")
+public class RecordTracer {
+
+    private static final Logger log = LoggerFactory.getLogger(RecordTracer.class);
+    private static final Logger trace = LoggerFactory.getLogger("record-trace");
+
+    private final ObjectMapper objectMapper;
+    private final String application;
+    private final BlockingQueue<ConsumerRecord<String, Message>> queue;
+    private final Thread writer;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong windowSecond = new AtomicLong();
+    private final AtomicLong windowCount = new AtomicLong();
+    private final LongAdder traced = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile boolean enabled;
+    private volatile int sampleEvery;
+    private volatile int maxPerSecond;
+    private volatile boolean running = true;
+
+    public RecordTracer(ObjectMapper objectMapper,
+                        @Value("${spring.application.name}") String application,
+                        @Value("${kafka.consumer.trace.enabled:true}") boolean enabled,
+                        @Value("${kafka.consumer.trace.sample-every:1}") int sampleEvery,
+                        @Value("${kafka.consumer.trace.max-per-second:100}") int maxPerSecond,
+                        @Value("${kafka.consumer.trace.queue-capacity:10000}") int queueCapacity) {
+        this.objectMapper = objectMapper;
+        this.application = application;
+        this.enabled = enabled;
+        setSampleEvery(sampleEvery);
+        setMaxPerSecond(maxPerSecond);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.writer = new Thread(this::writeLoop, "record-tracer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Trace le message s'il est retenu par l'échantillonnage (appelé par le thread consumer)
+     */
+    public void trace(ConsumerRecord<String, Message> record) {
+        if (!enabled || !sampled()) {
+            return;
+        }
+        if (!queue.offer(record)) {
+            dropped.increment();
+        }
+    }
+
+    private boolean sampled() {
+        if (sequence.incrementAndGet() % sampleEvery != 0) {
+            return false;
+        }
+        int limit = maxPerSecond;
+        if (limit <= 0) {
+            return true;
+        }
+        long second = System.currentTimeMillis() / 1000;
+        long current = windowSecond.get();
+        if (current != second && windowSecond.compareAndSet(current, second)) {
+            windowCount.set(0);
+        }
+        return windowCount.incrementAndGet() <= limit;
+    }
+
+    private void writeLoop() {
+        while (running || !queue.isEmpty()) {
+            try {
+                ConsumerRecord<String, Message> record = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (record != null) {
+                    trace.info("📩 {}", objectMapper.writeValueAsString(toEvent(record)));
+                    traced.increment();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (JsonProcessingException | RuntimeException e) {
+                log.warn("⚠️ Trace impossible : {}", e.getMessage());
+            }
+        }
+    }
+
+    private Map<String, Object> toEvent(ConsumerRecord<String, Message> record) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("app", application);
+        event.put("topic", record.topic());
+        event.put("partition", record.partition());
+        event.put("offset", record.offset());
+        event.put("key", record.key());
+        event.put("timestamp", record.timestamp());
+        Message message = record.value();
+        if (message != null) {
+            event.put("id", message.getId());
+            event.put("sender", message.getSender());
+            event.put("contentLength", message.getContent() != null ? message.getContent().length() : 0);
+        }
+        return event;
+    }
+
+    /**
+     * Résumé de la configuration courante, pour les logs de débit
+     */
+    public String describe() {
+        if (!enabled) {
+            return "trace off";
+        }
+        return "trace 1/" + sampleEvery + (maxPerSecond > 0 ? " ≤" + maxPerSecond + "/s" : "");
+    }
+
+    @ManagedAttribute(description = "Trace active")
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @ManagedAttribute
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        log.info("🔎 Trace des messages {}", enabled ? "activée" : "désactivée");
+    }
+
+    @ManagedAttribute(description = "Un message tracé sur N")
+    public int getSampleEvery() {
+        return sampleEvery;
+    }
+
+    @ManagedAttribute
+    public void setSampleEvery(int sampleEvery) {
+        if (sampleEvery < 1) {
+            throw new IllegalArgumentException("sample-every doit être >= 1");
+        }
+        this.sampleEvery = sampleEvery;
+    }
+
+    @ManagedAttribute(description = "Traces max par seconde (0 = illimité)")
+    public int getMaxPerSecond() {
+        return maxPerSecond;
+    }
+
+    @ManagedAttribute
+    public void setMaxPerSecond(int maxPerSecond) {
+        if (maxPerSecond < 0) {
+            throw new IllegalArgumentException("max-per-second doit être >= 0");
+        }
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    @ManagedAttribute(description = "Traces écrites")
+    public long getTraced() {
+        return traced.sum();
+    }
+
+    @ManagedAttribute(description = "Traces abandonnées (file pleine)")
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // Écrit les traces encore en file avant l'arrêt
+        running = false;
+        writer.join(2_000);
+    }
+}
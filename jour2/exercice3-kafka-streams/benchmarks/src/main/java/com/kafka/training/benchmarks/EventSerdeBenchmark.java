@@ -0,0 +1,80 @@
+package com.kafka.training.benchmarks;
+
+import com.kafka.training.common.model.EnrichedEvent;
+import com.kafka.training.common.model.Event;
+import com.kafka.training.common.model.UserProfile;
+import com.kafka.training.common.serde.EventCodecs;
+import com.kafka.training.common.serde.SerdeFormat;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serializer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût de sérialisation / désérialisation d'un enregistrement, JsonSerde vs BinarySerde,
+ * pour chaque modèle d'événement.
+ *
+ * La taille d'un enregistrement (bytes/record) est affichée au démarrage de chaque essai.
+ *
+ * java -jar benchmarks/target/benchmarks.jar EventSerdeBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventSerdeBenchmark {
+
+    private static final String TOPIC = "benchmark";
+
+    @Param({"EVENT", "USER_PROFILE", "ENRICHED_EVENT"})
+    private String model;
+
+    @Param({"JSON", "BINARY"})
+    private SerdeFormat format;
+
+    private Serializer<Object> serializer;
+    private Deserializer<Object> deserializer;
+    private Object record;
+    private byte[] bytes;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        long now = 1_700_000_000_000L;
+        Serde<?> serde;
+        switch (model) {
+            case "EVENT" -> {
+                serde = format.serde(Event.class, EventCodecs.EVENT);
+                record = new Event("user1", "PURCHASE", 129.99, "FR", now);
+            }
+            case "USER_PROFILE" -> {
+                serde = format.serde(UserProfile.class, EventCodecs.USER_PROFILE);
+                record = new UserProfile("user1", "Alice Martin", "FR", "GOLD");
+            }
+            case "ENRICHED_EVENT" -> {
+                serde = format.serde(EnrichedEvent.class, EventCodecs.ENRICHED_EVENT);
+                record = new EnrichedEvent("user1", "PURCHASE", 129.99, "FR", now, "Alice Martin", "GOLD");
+            }
+            default -> throw new IllegalArgumentException("Unknown model " + model);
+        }
+        serializer = (Serializer<Object>) serde.serializer();
+        deserializer = (Deserializer<Object>) serde.deserializer();
+        bytes = serializer.serialize(TOPIC, record);
+
+        System.out.printf("%n%s / %s : %d bytes/record%n", model, format, bytes.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(TOPIC, record);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return deserializer.deserialize(TOPIC, bytes);
+    }
+}
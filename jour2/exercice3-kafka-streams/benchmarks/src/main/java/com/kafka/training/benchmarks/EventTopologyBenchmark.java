@@ -0,0 +1,94 @@
+package com.kafka.training.benchmarks;
+
+import com.kafka.training.common.model.Event;
+import com.kafka.training.common.serde.EventCodecs;
+import com.kafka.training.common.serde.SerdeFormat;
+import com.kafka.training.common.serde.TopicSerdes;
+import com.kafka.training.streams.profiling.TopologyProfiler;
+import com.kafka.training.streams.topology.EventStreamTopology;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TestOutputTopic;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filtre des PURCHASE d'EventStreamTopology exécuté avec TopologyTestDriver, sans broker.
+ * Un événement sur cinq est un PURCHASE (même répartition que le producer).
+ *
+ * java -jar benchmarks/target/benchmarks.jar EventTopologyBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventTopologyBenchmark {
+
+    private static final List<String> USER_IDS = List.of("user1", "user2", "user3", "user4", "user5");
+    private static final List<String> EVENT_TYPES = List.of("PURCHASE", "LOGIN", "LOGOUT", "VIEW", "ADD_TO_CART");
+
+    @Param({"JSON", "BINARY"})
+    private SerdeFormat format;
+
+    private TopologyTestDriver driver;
+    private TestInputTopic<String, Event> eventsTopic;
+    private TestOutputTopic<String, byte[]> filteredTopic;
+    private Event[] events;
+    private long timestamp;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        TopicSerdes topicSerdes = new TopicSerdes(format, Map.of(), EventCodecs.ALL);
+
+        StreamsBuilder builder = new StreamsBuilder();
+        new EventStreamTopology(topicSerdes, TopologyProfiler.disabled()).buildPipeline(builder);
+
+        Properties props = new Properties();
+        props.put(StreamsConfig.APPLICATION_ID_CONFIG, "event-topology-benchmark");
+        props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "dummy:9092");
+        props.put(StreamsConfig.DEFAULT_KEY_SERDE_CLASS_CONFIG, Serdes.String().getClass());
+        props.put(StreamsConfig.DEFAULT_VALUE_SERDE_CLASS_CONFIG, Serdes.String().getClass());
+        driver = new TopologyTestDriver(builder.build(props), props, Instant.ofEpochMilli(0));
+
+        eventsTopic = driver.createInputTopic("user-events",
+                new StringSerializer(), topicSerdes.forTopic("user-events", Event.class).serializer());
+        filteredTopic = driver.createOutputTopic("filtered-events",
+                new StringDeserializer(), new ByteArrayDeserializer());
+
+        events = new Event[USER_IDS.size() * EVENT_TYPES.size()];
+        for (int i = 0; i < events.length; i++) {
+            String userId = USER_IDS.get(i % USER_IDS.size());
+            String eventType = EVENT_TYPES.get(i / USER_IDS.size());
+            events[i] = new Event(userId, eventType, 10.0 + i, "FR", 0L);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        driver.close();
+    }
+
+    @Benchmark
+    public int pipeEvent() {
+        Event event = events[next];
+        next = (next + 1) % events.length;
+        eventsTopic.pipeInput(event.getUserId(), event, timestamp++);
+
+        // Vider le topic de sortie : le driver le garde en mémoire sinon
+        return filteredTopic.readValuesToList().size();
+    }
+}
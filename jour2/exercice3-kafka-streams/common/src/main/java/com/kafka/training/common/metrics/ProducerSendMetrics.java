@@ -0,0 +1,154 @@
+package com.kafka.training.common.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.support.SendResult;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Instrumentation des envois Kafka, commune aux services producer
+ *
+ * Chaque envoi passe par track() : la latence est mesurée de l'appel à send()
+ * (mise en file dans le buffer du producer) jusqu'à l'ack du broker.
+ *
+ * - producer_send_latency_seconds{topic,outcome}   : timer (histogramme Prometheus)
+ * - producer_send_in_flight                         : envois non acquittés
+ * - producer_partition_records_total{topic,partition} et producer_partition_bytes_total :
+ *   rate() donne les records/s et octets/s par partition (partitions chaudes)
+ * - producer_send_errors_total{topic,exception}     : erreurs par type d'exception
+ *
+ * Les meters par topic/partition sont mis en cache : pas de recherche dans le
+ * registre à chaque envoi.
+ */
+public class ProducerSendMetrics {
+
+    private final MeterRegistry registry;
+    private final AtomicLong inFlight = new AtomicLong();
+    private final Map<String, Timer> successTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> errorTimers = new ConcurrentHashMap<>();
+    private final Map<TopicPartition, PartitionMeters> partitionMeters = new ConcurrentHashMap<>();
+
+    public ProducerSendMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        Gauge.builder("producer.send.in.flight", inFlight, AtomicLong::get)
+                .description("Records handed to the producer and not yet acknowledged")
+                .register(registry);
+    }
+
+    /**
+     * Exécute l'envoi et enregistre son issue à l'acquittement
+     *
+     * @param topic topic cible (utilisé aussi si l'envoi échoue avant d'obtenir une partition)
+     * @param send  appel à KafkaTemplate.send(...)
+     */
+    public <K, V> CompletableFuture<SendResult<K, V>> track(String topic,
+                                                             Supplier<CompletableFuture<SendResult<K, V>>> send) {
+        long start = System.nanoTime();
+        inFlight.incrementAndGet();
+        CompletableFuture<SendResult<K, V>> future;
+        try {
+            future = send.get();
+        } catch (RuntimeException e) {
+            // Échec synchrone (sérialisation, max.block.ms dépassé...)
+            complete(topic, start, null, e);
+            throw e;
+        }
+        future.whenComplete((result, ex) ->
+                complete(topic, start, result != null ? result.getRecordMetadata() : null, ex));
+        return future;
+    }
+
+    public long inFlight() {
+        return inFlight.get();
+    }
+
+    private void complete(String topic, long startNanos, RecordMetadata metadata, Throwable ex) {
+        long elapsed = System.nanoTime() - startNanos;
+        inFlight.decrementAndGet();
+
+        if (ex != null) {
+            errorTimers.computeIfAbsent(topic, t -> latencyTimer(t, "error"))
+                    .record(Duration.ofNanos(elapsed));
+            Counter.builder("producer.send.errors")
+                    .tag("topic", topic)
+                    .tag("exception", rootCause(ex).getClass().getSimpleName())
+                    .description("Failed sends by exception type")
+                    .register(registry)
+                    .increment();
+            return;
+        }
+
+        successTimers.computeIfAbsent(topic, t -> latencyTimer(t, "success"))
+                .record(Duration.ofNanos(elapsed));
+        if (metadata != null) {
+            PartitionMeters meters = partitionMeters.computeIfAbsent(
+                    new TopicPartition(metadata.topic(), metadata.partition()), this::partitionMeters);
+            meters.records.increment();
+            meters.bytes.increment(Math.max(0, metadata.serializedKeySize())
+                    + Math.max(0, metadata.serializedValueSize()));
+        }
+    }
+
+    private Timer latencyTimer(String topic, String outcome) {
+        return Timer.builder("producer.send.latency")
+                .tag("topic", topic)
+                .tag("outcome", outcome)
+                .description("Send latency, from KafkaTemplate.send() to broker ack")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(registry);
+    }
+
+    private PartitionMeters partitionMeters(TopicPartition tp) {
+        String partition = Integer.toString(tp.partition());
+        Counter records = Counter.builder("producer.partition.records")
+                .tag("topic", tp.topic())
+                .tag("partition", partition)
+                .description("Acknowledged records per partition")
+                .register(registry);
+        Counter bytes = Counter.builder("producer.partition.bytes")
+                .tag("topic", tp.topic())
+                .tag("partition", partition)
+                .baseUnit("bytes")
+                .description("Acknowledged serialized key + value bytes per partition")
+                .register(registry);
+        return new PartitionMeters(records, bytes);
+    }
+
+    /**
+     * Remonte aux causes réelles (KafkaProducerException, CompletionException... enveloppent l'erreur du client)
+     */
+    private static Throwable rootCause(Throwable ex) {
+        Throwable current = ex;
+        while (current.getCause() != null && current.getCause() != current
+                && (current instanceof CompletionException
+                || current instanceof ExecutionException
+                || current.getClass().getName().startsWith("org.springframework.kafka"))) {
+            current = current.getCause();
+        }
+        return current;
+    }
+
+    private static class PartitionMeters {
+        private final Counter records;
+        private final Counter bytes;
+
+        PartitionMeters(Counter records, Counter bytes) {
+            this.records = records;
+            this.bytes = bytes;
+        }
+    }
+}
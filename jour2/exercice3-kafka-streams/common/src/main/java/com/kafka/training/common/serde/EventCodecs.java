@@ -0,0 +1,108 @@
+package com.kafka.training.common.serde;
+
+import com.kafka.training.common.model.EnrichedEvent;
+import com.kafka.training.common.model.Event;
+import com.kafka.training.common.model.UserProfile;
+
+import java.util.Map;
+
+/**
+ * Schémas binaires (version 1) des modèles d'événements
+ */
+public final class EventCodecs {
+
+    public static final BinaryCodec<Event> EVENT = new BinaryCodec<>() {
+        @Override
+        public int version() {
+            return 1;
+        }
+
+        @Override
+        public void write(Event event, BinaryWriter out) {
+            out.writeString(event.getUserId());
+            out.writeString(event.getEventType());
+            out.writeNullableDouble(event.getAmount());
+            out.writeString(event.getCountry());
+            out.writeNullableLong(event.getTimestamp());
+        }
+
+        @Override
+        public Event read(BinaryReader in, int version) {
+            Event event = new Event();
+            event.setUserId(in.readString());
+            event.setEventType(in.readString());
+            event.setAmount(in.readNullableDouble());
+            event.setCountry(in.readString());
+            event.setTimestamp(in.readNullableLong());
+            return event;
+        }
+    };
+
+    public static final BinaryCodec<UserProfile> USER_PROFILE = new BinaryCodec<>() {
+        @Override
+        public int version() {
+            return 1;
+        }
+
+        @Override
+        public void write(UserProfile profile, BinaryWriter out) {
+            out.writeString(profile.getUserId());
+            out.writeString(profile.getName());
+            out.writeString(profile.getCountry());
+            out.writeString(profile.getTier());
+        }
+
+        @Override
+        public UserProfile read(BinaryReader in, int version) {
+            UserProfile profile = new UserProfile();
+            profile.setUserId(in.readString());
+            profile.setName(in.readString());
+            profile.setCountry(in.readString());
+            profile.setTier(in.readString());
+            return profile;
+        }
+    };
+
+    public static final BinaryCodec<EnrichedEvent> ENRICHED_EVENT = new BinaryCodec<>() {
+        @Override
+        public int version() {
+            return 1;
+        }
+
+        @Override
+        public void write(EnrichedEvent event, BinaryWriter out) {
+            out.writeString(event.getUserId());
+            out.writeString(event.getEventType());
+            out.writeNullableDouble(event.getAmount());
+            out.writeString(event.getCountry());
+            out.writeNullableLong(event.getTimestamp());
+            out.writeString(event.getUserName());
+            out.writeString(event.getUserTier());
+        }
+
+        @Override
+        public EnrichedEvent read(BinaryReader in, int version) {
+            EnrichedEvent event = new EnrichedEvent();
+            event.setUserId(in.readString());
+            event.setEventType(in.readString());
+            event.setAmount(in.readNullableDouble());
+            event.setCountry(in.readString());
+            event.setTimestamp(in.readNullableLong());
+            event.setUserName(in.readString());
+            event.setUserTier(in.readString());
+            return event;
+        }
+    };
+
+    /**
+     * Codecs par type, pour TopicSerdes
+     */
+    public static final Map<Class<?>, BinaryCodec<?>> ALL = Map.of(
+            Event.class, EVENT,
+            UserProfile.class, USER_PROFILE,
+            EnrichedEvent.class, ENRICHED_EVENT
+    );
+
+    private EventCodecs() {
+    }
+}
@@ -1,21 +1,46 @@
 package com.kafka.training.common.serde;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
 import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
 import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.common.serialization.Serializer;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Map;
 
+/**
+ * Serde JSON (Jackson)
+ *
+ * ObjectReader / ObjectWriter sont construits une fois pour targetType, et chaque
+ * thread réutilise son propre tampon d'écriture : seul le byte[] final est alloué
+ * par enregistrement. La désérialisation depuis un ByteBuffer lit directement
+ * le tableau sous-jacent, sans copie.
+ */
 public class JsonSerde<T> implements Serde<T> {
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
-    private final Class<T> targetType;
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static final int INITIAL_BUFFER_SIZE = 512;
+    // Au-delà, le tampon n'est pas conservé (évite de garder un gros tableau par thread)
+    private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+
+    private static final ThreadLocal<ReusableOutputStream> BUFFERS =
+            ThreadLocal.withInitial(() -> new ReusableOutputStream(INITIAL_BUFFER_SIZE));
+
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
 
     public JsonSerde(Class<T> targetType) {
-        this.targetType = targetType;
+        this.reader = OBJECT_MAPPER.readerFor(targetType);
+        this.writer = OBJECT_MAPPER.writerFor(targetType);
     }
 
     @Override
@@ -26,10 +51,18 @@ public class JsonSerde<T> implements Serde<T> {
                 if (data == null) {
                     return null;
                 }
+                ReusableOutputStream buffer = BUFFERS.get();
                 try {
-                    return objectMapper.writeValueAsBytes(data);
+                    writer.writeValue(buffer, data);
+                    return buffer.toByteArray();
                 } catch (Exception e) {
                     throw new SerializationException("Error serializing JSON message", e);
+                } finally {
+                    if (buffer.capacity() > MAX_RETAINED_BUFFER_SIZE) {
+                        BUFFERS.remove();
+                    } else {
+                        buffer.reset();
+                    }
                 }
             }
         };
@@ -44,7 +77,22 @@ public class JsonSerde<T> implements Serde<T> {
                     return null;
                 }
                 try {
-                    return objectMapper.readValue(data, targetType);
+                    return reader.readValue(data);
+                } catch (IOException e) {
+                    throw new SerializationException("Error deserializing JSON message", e);
+                }
+            }
+
+            @Override
+            public T deserialize(String topic, Headers headers, ByteBuffer data) {
+                if (data == null) {
+                    return null;
+                }
+                try {
+                    if (data.hasArray()) {
+                        return reader.readValue(data.array(), data.arrayOffset() + data.position(), data.remaining());
+                    }
+                    return reader.readValue(new ByteBufferBackedInputStream(data.duplicate()));
                 } catch (IOException e) {
                     throw new SerializationException("Error deserializing JSON message", e);
                 }
@@ -61,4 +109,47 @@ public class JsonSerde<T> implements Serde<T> {
     public void close() {
         // Nothing to close
     }
+
+    /**
+     * ByteArrayOutputStream réutilisable, sans synchronisation (un par thread)
+     */
+    private static final class ReusableOutputStream extends ByteArrayOutputStream {
+
+        ReusableOutputStream(int size) {
+            super(size);
+        }
+
+        int capacity() {
+            return buf.length;
+        }
+
+        @Override
+        public void write(int b) {
+            ensureCapacity(1);
+            buf[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            ensureCapacity(len);
+            System.arraycopy(b, off, buf, count, len);
+            count += len;
+        }
+
+        @Override
+        public byte[] toByteArray() {
+            return Arrays.copyOf(buf, count);
+        }
+
+        @Override
+        public void reset() {
+            count = 0;
+        }
+
+        private void ensureCapacity(int extra) {
+            if (count + extra > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, count + extra));
+            }
+        }
+    }
 }
@@ -0,0 +1,39 @@
+package com.kafka.training.common.serde;
+
+import org.apache.kafka.common.serialization.Serde;
+
+import java.util.Map;
+
+/**
+ * Choix du serde par topic (ou par state store / topic interne)
+ *
+ * Les topics absents de la configuration utilisent le format par défaut.
+ */
+public class TopicSerdes {
+
+    private final SerdeFormat defaultFormat;
+    private final Map<String, SerdeFormat> topicFormats;
+    private final Map<Class<?>, BinaryCodec<?>> codecs;
+
+    public TopicSerdes(SerdeFormat defaultFormat,
+                       Map<String, SerdeFormat> topicFormats,
+                       Map<Class<?>, BinaryCodec<?>> codecs) {
+        this.defaultFormat = defaultFormat;
+        this.topicFormats = Map.copyOf(topicFormats);
+        this.codecs = Map.copyOf(codecs);
+    }
+
+    public SerdeFormat formatOf(String topic) {
+        return topicFormats.getOrDefault(topic, defaultFormat);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> Serde<T> forTopic(String topic, Class<T> targetType) {
+        SerdeFormat format = formatOf(topic);
+        BinaryCodec<T> codec = (BinaryCodec<T>) codecs.get(targetType);
+        if (format == SerdeFormat.BINARY && codec == null) {
+            throw new IllegalArgumentException("No binary codec registered for " + targetType.getName());
+        }
+        return format.serde(targetType, codec);
+    }
+}
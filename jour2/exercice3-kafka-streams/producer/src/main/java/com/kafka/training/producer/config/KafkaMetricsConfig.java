@@ -0,0 +1,33 @@
+package com.kafka.training.producer.config;
+
+import com.kafka.training.common.metrics.ProducerSendMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.MicrometerProducerListener;
+import org.springframework.kafka.core.ProducerFactory;
+
+@Configuration
+public class KafkaMetricsConfig {
+
+    @Bean
+    public MicrometerProducerListener<String, Object> micrometerProducerListener(
+            MeterRegistry meterRegistry,
+            ProducerFactory<String, Object> producerFactory) {
+
+        MicrometerProducerListener<String, Object> listener = new MicrometerProducerListener<>(meterRegistry);
+
+        // Add the listener to the producer factory
+        producerFactory.addListener(listener);
+
+        return listener;
+    }
+
+    /**
+     * Latence send → ack, envois en cours, débit par partition et erreurs par type
+     */
+    @Bean
+    public ProducerSendMetrics producerSendMetrics(MeterRegistry meterRegistry) {
+        return new ProducerSendMetrics(meterRegistry);
+    }
+}
@@ -0,0 +1,72 @@
+package com.kafka.training.producer.controller;
+
+import com.kafka.training.common.loadgen.LoadProfile;
+import com.kafka.training.common.loadgen.LoadReport;
+import com.kafka.training.producer.service.LoadGeneratorService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Générateur de charge en boucle ouverte (débit cible, distribution des clés)
+ * avec percentiles de latence send → ack
+ */
+@RestController
+@RequestMapping("/api/load")
+public class LoadGeneratorController {
+
+    private final LoadGeneratorService loadGeneratorService;
+
+    public LoadGeneratorController(LoadGeneratorService loadGeneratorService) {
+        this.loadGeneratorService = loadGeneratorService;
+    }
+
+    /**
+     * Démarre une campagne (profil par défaut si le corps est vide)
+     * POST /api/load/start
+     *
+     * Body:
+     * {
+     *   "ratePerSecond": 5000,
+     *   "durationSeconds": 60,
+     *   "keyCount": 10000,
+     *   "distribution": "ZIPF",
+     *   "zipfExponent": 1.1
+     * }
+     */
+    @PostMapping("/start")
+    public ResponseEntity<?> start(@RequestBody(required = false) LoadProfile profile) {
+        try {
+            LoadReport report = loadGeneratorService.start(profile != null ? profile : new LoadProfile());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(report);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Arrête la campagne en cours
+     * POST /api/load/stop
+     */
+    @PostMapping("/stop")
+    public ResponseEntity<LoadReport> stop() {
+        return loadGeneratorService.stop()
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * État et percentiles (ms) de la campagne en cours ou de la dernière
+     * GET /api/load
+     */
+    @GetMapping
+    public ResponseEntity<LoadReport> report() {
+        return loadGeneratorService.report()
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -1,5 +1,6 @@
 package com.kafka.training.producer.service;
 
+import com.kafka.training.common.metrics.ProducerSendMetrics;
 import com.kafka.training.common.model.Event;
 import com.kafka.training.common.model.UserProfile;
 import org.slf4j.Logger;
@@ -15,17 +16,19 @@ public class EventProducerService {
 
     private static final Logger log = LoggerFactory.getLogger(EventProducerService.class);
     private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final ProducerSendMetrics sendMetrics;
 
-    public EventProducerService(KafkaTemplate<String, Object> kafkaTemplate) {
+    public EventProducerService(KafkaTemplate<String, Object> kafkaTemplate,
+                                ProducerSendMetrics sendMetrics) {
         this.kafkaTemplate = kafkaTemplate;
+        this.sendMetrics = sendMetrics;
     }
 
     private static final String USER_EVENTS_TOPIC = "user-events";
     private static final String USER_PROFILES_TOPIC = "user-profiles";
 
     public void sendEvent(Event event) {
-        CompletableFuture<SendResult<String, Object>> future =
-                kafkaTemplate.send(USER_EVENTS_TOPIC, event.getUserId(), event);
+        CompletableFuture<SendResult<String, Object>> future = sendEventAsync(event);
 
         future.whenComplete((result, ex) -> {
             if (ex == null) {
@@ -37,10 +40,18 @@ public class EventProducerService {
         });
     }
 
+    /**
+     * Envoi sans log par événement : l'appelant traite lui-même l'acquittement
+     */
+    public CompletableFuture<SendResult<String, Object>> sendEventAsync(Event event) {
+        return sendMetrics.track(USER_EVENTS_TOPIC,
+                () -> kafkaTemplate.send(USER_EVENTS_TOPIC, event.getUserId(), event));
+    }
+
     public void sendUserProfile(UserProfile profile) {
         // Utilise userId comme clé pour garantir le compactage
-        CompletableFuture<SendResult<String, Object>> future =
-                kafkaTemplate.send(USER_PROFILES_TOPIC, profile.getUserId(), profile);
+        CompletableFuture<SendResult<String, Object>> future = sendMetrics.track(USER_PROFILES_TOPIC,
+                () -> kafkaTemplate.send(USER_PROFILES_TOPIC, profile.getUserId(), profile));
 
         future.whenComplete((result, ex) -> {
             if (ex == null) {
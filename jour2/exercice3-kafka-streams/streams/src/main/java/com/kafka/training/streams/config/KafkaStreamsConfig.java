@@ -1,14 +1,16 @@
 package com.kafka.training.streams.config;
 
-import com.kafka.training.common.model.EnrichedEvent;
-import com.kafka.training.common.model.Event;
-import com.kafka.training.common.model.UserProfile;
-import com.kafka.training.common.serde.JsonSerde;
+import com.kafka.training.common.serde.EventCodecs;
+import com.kafka.training.common.serde.SerdeFormat;
+import com.kafka.training.common.serde.TopicSerdes;
 import org.apache.kafka.common.serialization.Serdes;
 import org.apache.kafka.streams.StreamsConfig;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.kafka.annotation.KafkaStreamsDefaultConfiguration;
 import org.springframework.kafka.config.KafkaStreamsConfiguration;
 
@@ -38,18 +40,17 @@ public class KafkaStreamsConfig {
         return new KafkaStreamsConfiguration(props);
     }
 
+    /**
+     * Serde par topic : JSON par défaut, BINARY pour les topics listés dans events.serde.topics
+     */
     @Bean
-    public JsonSerde<Event> eventSerde() {
-        return new JsonSerde<>(Event.class);
-    }
-
-    @Bean
-    public JsonSerde<UserProfile> userProfileSerde() {
-        return new JsonSerde<>(UserProfile.class);
-    }
-
-    @Bean
-    public JsonSerde<EnrichedEvent> enrichedEventSerde() {
-        return new JsonSerde<>(EnrichedEvent.class);
+    public TopicSerdes topicSerdes(Environment environment) {
+        Binder binder = Binder.get(environment);
+        SerdeFormat defaultFormat = binder.bind("events.serde.default-format", SerdeFormat.class)
+                .orElse(SerdeFormat.JSON);
+        Map<String, SerdeFormat> topicFormats = binder
+                .bind("events.serde.topics", Bindable.mapOf(String.class, SerdeFormat.class))
+                .orElse(Map.of());
+        return new TopicSerdes(defaultFormat, topicFormats, EventCodecs.ALL);
     }
 }
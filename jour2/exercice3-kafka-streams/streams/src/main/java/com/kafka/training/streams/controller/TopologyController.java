@@ -1,5 +1,6 @@
 package com.kafka.training.streams.controller;
 
+import com.kafka.training.streams.profiling.TopologyProfiler;
 import org.apache.kafka.streams.KafkaStreams;
 import org.apache.kafka.streams.TopologyDescription;
 import org.springframework.kafka.config.StreamsBuilderFactoryBean;
@@ -8,6 +9,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @RestController
@@ -15,9 +17,12 @@ import java.util.Map;
 public class TopologyController {
 
     private final StreamsBuilderFactoryBean streamsBuilderFactoryBean;
+    private final TopologyProfiler topologyProfiler;
 
-    public TopologyController(StreamsBuilderFactoryBean streamsBuilderFactoryBean) {
+    public TopologyController(StreamsBuilderFactoryBean streamsBuilderFactoryBean,
+                              TopologyProfiler topologyProfiler) {
         this.streamsBuilderFactoryBean = streamsBuilderFactoryBean;
+        this.topologyProfiler = topologyProfiler;
     }
 
     @GetMapping
@@ -74,4 +79,29 @@ public class TopologyController {
             return "Error: " + e.getMessage();
         }
     }
+
+    /**
+     * Sous-topologies annotées du débit et de la latence de chaque nœud profilé
+     * (voir TopologyProfiler)
+     */
+    @GetMapping("/profile")
+    public Map<String, Object> profileTopology() {
+        Map<String, Object> response = new LinkedHashMap<>();
+
+        try {
+            KafkaStreams kafkaStreams = streamsBuilderFactoryBean.getKafkaStreams();
+
+            if (kafkaStreams != null) {
+                response.put("state", kafkaStreams.state().toString());
+                response.putAll(topologyProfiler.profile(streamsBuilderFactoryBean.getTopology().describe()));
+            } else {
+                response.put("error", "KafkaStreams not initialized");
+            }
+
+        } catch (Exception e) {
+            response.put("error", e.getMessage());
+        }
+
+        return response;
+    }
 }
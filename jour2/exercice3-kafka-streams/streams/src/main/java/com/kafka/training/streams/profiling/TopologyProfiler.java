@@ -0,0 +1,360 @@
+package com.kafka.training.streams.profiling;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.streams.TopologyDescription;
+import org.apache.kafka.streams.kstream.Aggregator;
+import org.apache.kafka.streams.kstream.KeyValueMapper;
+import org.apache.kafka.streams.kstream.Predicate;
+import org.apache.kafka.streams.kstream.ValueJoiner;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Profilage par nœud de la topologie : débit (records/s) et latence de traitement
+ *
+ * Kafka Streams ne mesure la latence de traitement qu'au niveau de la tâche. Le profiler
+ * enveloppe la fonction de chaque nœud nommé (prédicat, sélection de clé, jointure,
+ * agrégation) et le serde des sources et des puits, et enregistre la durée de chaque
+ * appel dans un Timer Micrometer : streams_node_latency_seconds{node="..."}, dont le
+ * compteur donne le nombre d'enregistrements traités par le nœud.
+ *
+ * Seule la fonction du nœud est mesurée : accès aux state stores, cache et sérialisation
+ * des topics internes n'y figurent pas.
+ * Les noms passés ici sont ceux des nœuds (Named, Consumed.as, Produced.as...) : la vue
+ * profile(TopologyDescription) rattache ainsi les mesures au graphe de Topology.describe().
+ */
+@Component
+public class TopologyProfiler {
+
+    public static final String NODE_LATENCY_METRIC = "streams.node.latency";
+
+    private static final double[] PERCENTILES = {0.5, 0.99, 0.999};
+    // Débit recalculé au plus une fois par seconde (appels rapprochés de la vue), sauf au premier appel
+    private static final long MIN_RATE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Map<String, NodeStats> nodes = new ConcurrentHashMap<>();
+
+    public TopologyProfiler(MeterRegistry meterRegistry,
+                            @Value("${events.profiling.enabled:true}") boolean enabled) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Profiler inactif : fonctions et serdes sont renvoyés tels quels (benchmarks)
+     */
+    public static TopologyProfiler disabled() {
+        return new TopologyProfiler(new SimpleMeterRegistry(), false);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public <K, V> Predicate<K, V> predicate(String node, Predicate<K, V> predicate) {
+        if (!enabled) {
+            return predicate;
+        }
+        NodeStats stats = stats(node);
+        return (key, value) -> {
+            long start = System.nanoTime();
+            try {
+                return predicate.test(key, value);
+            } finally {
+                stats.record(start);
+            }
+        };
+    }
+
+    public <K, V, R> KeyValueMapper<K, V, R> keyValueMapper(String node, KeyValueMapper<K, V, R> mapper) {
+        if (!enabled) {
+            return mapper;
+        }
+        NodeStats stats = stats(node);
+        return (key, value) -> {
+            long start = System.nanoTime();
+            try {
+                return mapper.apply(key, value);
+            } finally {
+                stats.record(start);
+            }
+        };
+    }
+
+    public <V1, V2, R> ValueJoiner<V1, V2, R> valueJoiner(String node, ValueJoiner<V1, V2, R> joiner) {
+        if (!enabled) {
+            return joiner;
+        }
+        NodeStats stats = stats(node);
+        return (value1, value2) -> {
+            long start = System.nanoTime();
+            try {
+                return joiner.apply(value1, value2);
+            } finally {
+                stats.record(start);
+            }
+        };
+    }
+
+    public <K, V, A> Aggregator<K, V, A> aggregator(String node, Aggregator<K, V, A> aggregator) {
+        if (!enabled) {
+            return aggregator;
+        }
+        NodeStats stats = stats(node);
+        return (key, value, aggregate) -> {
+            long start = System.nanoTime();
+            try {
+                return aggregator.apply(key, value, aggregate);
+            } finally {
+                stats.record(start);
+            }
+        };
+    }
+
+    /**
+     * Serde d'une source (désérialisation mesurée) ou d'un puits (sérialisation mesurée).
+     * À n'utiliser que pour ce nœud : toute autre utilisation serait comptée avec lui.
+     */
+    public <T> Serde<T> serde(String node, Serde<T> serde) {
+        if (!enabled) {
+            return serde;
+        }
+        NodeStats stats = stats(node);
+        return Serdes.serdeFrom(new TimedSerializer<>(serde.serializer(), stats),
+                new TimedDeserializer<>(serde.deserializer(), stats));
+    }
+
+    /**
+     * Graphe de la topologie (sous-topologies, nœuds, successeurs) annoté des mesures
+     * de chaque nœud instrumenté. timeShare : part du temps mesuré sur l'ensemble des nœuds.
+     */
+    public Map<String, Object> profile(TopologyDescription description) {
+        long now = System.nanoTime();
+        double totalMicros = 0;
+        for (NodeStats stats : nodes.values()) {
+            totalMicros += stats.timer.totalTime(TimeUnit.MICROSECONDS);
+        }
+
+        List<Map<String, Object>> subtopologies = new ArrayList<>();
+        for (TopologyDescription.Subtopology subtopology : description.subtopologies()) {
+            List<Map<String, Object>> subtopologyNodes = new ArrayList<>();
+            for (TopologyDescription.Node node : subtopology.nodes()) {
+                subtopologyNodes.add(describeNode(node, now, totalMicros));
+            }
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("id", subtopology.id());
+            entry.put("nodes", subtopologyNodes);
+            subtopologies.add(entry);
+        }
+
+        List<Map<String, Object>> globalStores = new ArrayList<>();
+        for (TopologyDescription.GlobalStore globalStore : description.globalStores()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("id", globalStore.id());
+            entry.put("source", describeNode(globalStore.source(), now, totalMicros));
+            entry.put("processor", describeNode(globalStore.processor(), now, totalMicros));
+            globalStores.add(entry);
+        }
+
+        Map<String, Object> profile = new LinkedHashMap<>();
+        profile.put("enabled", enabled);
+        profile.put("subtopologies", subtopologies);
+        profile.put("globalStores", globalStores);
+        return profile;
+    }
+
+    private Map<String, Object> describeNode(TopologyDescription.Node node, long now, double totalMicros) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("name", node.name());
+        if (node instanceof TopologyDescription.Source source) {
+            entry.put("type", "source");
+            entry.put("topics", source.topicPattern() != null
+                    ? List.of(source.topicPattern().pattern())
+                    : new ArrayList<>(source.topicSet()));
+        } else if (node instanceof TopologyDescription.Sink sink) {
+            entry.put("type", "sink");
+            entry.put("topic", sink.topic());
+        } else if (node instanceof TopologyDescription.Processor processor) {
+            entry.put("type", "processor");
+            entry.put("stores", new ArrayList<>(processor.stores()));
+        }
+        entry.put("successors", node.successors().stream().map(TopologyDescription.Node::name).toList());
+
+        NodeStats stats = nodes.get(node.name());
+        if (stats != null) {
+            entry.put("profile", stats.snapshot(now, totalMicros));
+        }
+        return entry;
+    }
+
+    private NodeStats stats(String node) {
+        return nodes.computeIfAbsent(node, name -> new NodeStats(Timer.builder(NODE_LATENCY_METRIC)
+                .tag("node", name)
+                .description("Time spent in the function of a Kafka Streams processor node")
+                .publishPercentiles(PERCENTILES)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(1_000))
+                .maximumExpectedValue(Duration.ofSeconds(1))
+                .register(meterRegistry)));
+    }
+
+    /**
+     * Timer d'un nœud et dernier débit calculé pour la vue
+     */
+    private static final class NodeStats {
+
+        private final Timer timer;
+        private long lastCount;
+        private long lastNanos = System.nanoTime();
+        private double recordsPerSecond;
+
+        private NodeStats(Timer timer) {
+            this.timer = timer;
+        }
+
+        void record(long startNanos) {
+            timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+
+        synchronized Map<String, Object> snapshot(long now, double totalMicros) {
+            HistogramSnapshot histogram = timer.takeSnapshot();
+            if (now - lastNanos >= MIN_RATE_INTERVAL_NANOS || lastCount == 0) {
+                recordsPerSecond = (histogram.count() - lastCount) * 1e9 / (now - lastNanos);
+                lastCount = histogram.count();
+                lastNanos = now;
+            }
+
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("records", histogram.count());
+            snapshot.put("recordsPerSecond", recordsPerSecond);
+            snapshot.put("meanMicros", histogram.mean(TimeUnit.MICROSECONDS));
+            // Percentiles et max sur une fenêtre glissante (2 minutes par défaut dans Micrometer)
+            for (ValueAtPercentile percentile : histogram.percentileValues()) {
+                snapshot.put("p" + formatPercentile(percentile.percentile()) + "Micros",
+                        percentile.value(TimeUnit.MICROSECONDS));
+            }
+            snapshot.put("maxMicros", histogram.max(TimeUnit.MICROSECONDS));
+            snapshot.put("totalMillis", histogram.total(TimeUnit.MILLISECONDS));
+            snapshot.put("timeShare", totalMicros > 0 ? histogram.total(TimeUnit.MICROSECONDS) / totalMicros : 0.0);
+            return snapshot;
+        }
+
+        private static String formatPercentile(double percentile) {
+            // 0.5 -> 50, 0.99 -> 99, 0.999 -> 99.9
+            String value = Double.toString(percentile * 100);
+            return value.endsWith(".0") ? value.substring(0, value.length() - 2) : value;
+        }
+    }
+
+    private static final class TimedSerializer<T> implements Serializer<T> {
+
+        private final Serializer<T> delegate;
+        private final NodeStats stats;
+
+        private TimedSerializer(Serializer<T> delegate, NodeStats stats) {
+            this.delegate = delegate;
+            this.stats = stats;
+        }
+
+        @Override
+        public void configure(Map<String, ?> configs, boolean isKey) {
+            delegate.configure(configs, isKey);
+        }
+
+        @Override
+        public byte[] serialize(String topic, T data) {
+            long start = System.nanoTime();
+            try {
+                return delegate.serialize(topic, data);
+            } finally {
+                stats.record(start);
+            }
+        }
+
+        @Override
+        public byte[] serialize(String topic, Headers headers, T data) {
+            long start = System.nanoTime();
+            try {
+                return delegate.serialize(topic, headers, data);
+            } finally {
+                stats.record(start);
+            }
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+
+    private static final class TimedDeserializer<T> implements Deserializer<T> {
+
+        private final Deserializer<T> delegate;
+        private final NodeStats stats;
+
+        private TimedDeserializer(Deserializer<T> delegate, NodeStats stats) {
+            this.delegate = delegate;
+            this.stats = stats;
+        }
+
+        @Override
+        public void configure(Map<String, ?> configs, boolean isKey) {
+            delegate.configure(configs, isKey);
+        }
+
+        @Override
+        public T deserialize(String topic, byte[] data) {
+            long start = System.nanoTime();
+            try {
+                return delegate.deserialize(topic, data);
+            } finally {
+                stats.record(start);
+            }
+        }
+
+        @Override
+        public T deserialize(String topic, Headers headers, byte[] data) {
+            long start = System.nanoTime();
+            try {
+                return delegate.deserialize(topic, headers, data);
+            } finally {
+                stats.record(start);
+            }
+        }
+
+        @Override
+        public T deserialize(String topic, Headers headers, ByteBuffer data) {
+            long start = System.nanoTime();
+            try {
+                return delegate.deserialize(topic, headers, data);
+            } finally {
+                stats.record(start);
+            }
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+}
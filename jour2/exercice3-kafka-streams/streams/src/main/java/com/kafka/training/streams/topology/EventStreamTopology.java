@@ -3,7 +3,9 @@ package com.kafka.training.streams.topology;
 import com.kafka.training.common.model.EnrichedEvent;
 import com.kafka.training.common.model.Event;
 import com.kafka.training.common.model.UserProfile;
-import com.kafka.training.common.serde.JsonSerde;
+import com.kafka.training.common.serde.TopicSerdes;
+import com.kafka.training.streams.profiling.TopologyProfiler;
+import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.common.serialization.Serdes;
 import org.apache.kafka.streams.StreamsBuilder;
 import org.apache.kafka.streams.kstream.*;
@@ -20,6 +22,9 @@ import org.springframework.stereotype.Component;
  * 2. Filtre uniquement les événements PURCHASE
  * 3. Écrit dans filtered-events
  *
+ * Les nœuds nommés sont profilés (débit, latence) : voir TopologyProfiler et
+ * GET /api/topology/profile
+ *
  * EXERCICE : Faire évoluer cette pipeline pour explorer Kafka Streams
  * - Ajouter des transformations (map, mapValues)
  * - Créer des agrégations (count, sum)
@@ -31,39 +36,45 @@ public class EventStreamTopology {
 
     private static final Logger log = LoggerFactory.getLogger(EventStreamTopology.class);
 
-    private final JsonSerde<Event> eventSerde;
-    private final JsonSerde<UserProfile> userProfileSerde;
-    private final JsonSerde<EnrichedEvent> enrichedEventSerde;
+    private final TopicSerdes topicSerdes;
+    private final TopologyProfiler profiler;
 
-    public EventStreamTopology(JsonSerde<Event> eventSerde,
-                               JsonSerde<UserProfile> userProfileSerde,
-                               JsonSerde<EnrichedEvent> enrichedEventSerde) {
-        this.eventSerde = eventSerde;
-        this.userProfileSerde = userProfileSerde;
-        this.enrichedEventSerde = enrichedEventSerde;
+    public EventStreamTopology(TopicSerdes topicSerdes, TopologyProfiler profiler) {
+        this.topicSerdes = topicSerdes;
+        this.profiler = profiler;
     }
 
     @Autowired
     public void buildPipeline(StreamsBuilder streamsBuilder) {
         log.info("Building Kafka Streams topology...");
 
+        // Serdes choisis par topic (events.serde.*) : JSON ou BINARY
+        Serde<Event> eventSerde = topicSerdes.forTopic("user-events", Event.class);
+        Serde<Event> filteredEventSerde = topicSerdes.forTopic("filtered-events", Event.class);
+        Serde<UserProfile> userProfileSerde = topicSerdes.forTopic("user-profiles", UserProfile.class);
+        Serde<EnrichedEvent> enrichedEventSerde = topicSerdes.forTopic("enriched-events", EnrichedEvent.class);
+
         // ========================================
         // PIPELINE SIMPLE : Filtre des PURCHASE
         // ========================================
 
         // 1. Stream des événements
         KStream<String, Event> eventsStream = streamsBuilder
-                .stream("user-events", Consumed.with(Serdes.String(), eventSerde))
+                .stream("user-events", Consumed.with(Serdes.String(), profiler.serde("user-events-source", eventSerde))
+                        .withName("user-events-source"))
                 .peek((key, value) -> log.debug("Received event: key={}, type={}", key, value.getEventType()));
 
         // 2. Filtre : uniquement les PURCHASE
         KStream<String, Event> purchaseStream = eventsStream
-                .filter((key, event) -> "PURCHASE".equals(event.getEventType()))
+                .filter(profiler.predicate("purchase-filter", (key, event) -> "PURCHASE".equals(event.getEventType())),
+                        Named.as("purchase-filter"))
                 .peek((key, value) -> log.info("Filtered PURCHASE: userId={}, amount={}",
                         value.getUserId(), value.getAmount()));
 
         // 3. Écriture dans le topic de sortie
-        purchaseStream.to("filtered-events", Produced.with(Serdes.String(), eventSerde));
+        purchaseStream.to("filtered-events",
+                Produced.with(Serdes.String(), profiler.serde("filtered-events-sink", filteredEventSerde))
+                        .withName("filtered-events-sink"));
 
         // ========================================
         // À FAIRE PAR LES ÉLÈVES
@@ -75,8 +86,10 @@ public class EventStreamTopology {
         // TODO 2: Faire une jointure entre purchaseStream et userProfileTable
         // KStream<String, EnrichedEvent> enrichedStream = purchaseStream.join(
         //     userProfileTable,
-        //     (event, profile) -> new EnrichedEvent(...)
+        //     profiler.valueJoiner("profile-join", (event, profile) -> new EnrichedEvent(...)),
+        //     Joined.as("profile-join")
         // );
+        // (nommer le nœud comme la mesure pour la retrouver dans /api/topology/profile)
 
         // TODO 3: Créer des agrégations
         // - Compter les achats par utilisateur
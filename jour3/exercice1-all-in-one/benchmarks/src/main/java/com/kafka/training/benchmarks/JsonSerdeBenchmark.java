@@ -0,0 +1,83 @@
+package com.kafka.training.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kafka.training.common.model.EnrichedQuote;
+import com.kafka.training.common.model.QuoteStatus;
+import com.kafka.training.common.serde.JsonSerde;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JsonSerde actuel (ObjectReader / ObjectWriter réutilisés, tampon par thread,
+ * lecture depuis un ByteBuffer) comparé à l'implémentation d'origine
+ * (writeValueAsBytes / readValue(byte[], Class)).
+ *
+ * À lancer avec le profileur GC pour comparer les allocations (gc.alloc.rate.norm, B/op) :
+ *
+ * java -jar benchmarks/target/benchmarks.jar JsonSerdeBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerdeBenchmark {
+
+    private static final String TOPIC = "benchmark";
+
+    private final ObjectMapper legacyMapper = new ObjectMapper();
+
+    private Serializer<EnrichedQuote> serializer;
+    private Deserializer<EnrichedQuote> deserializer;
+    private EnrichedQuote quote;
+    private byte[] bytes;
+    private ByteBuffer slice;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        JsonSerde<EnrichedQuote> serde = new JsonSerde<>(EnrichedQuote.class);
+        serializer = serde.serializer();
+        deserializer = serde.deserializer();
+
+        long now = 1_700_000_000_000L;
+        quote = new EnrichedQuote("Q-1a2b3c4d", "C001", QuoteStatus.VALIDATED, "AUTO",
+                600.0, 720.0, now, now + 60_000, "Auto Insurance", 500.0, 0.20);
+        bytes = serializer.serialize(TOPIC, quote);
+
+        // Enregistrement au milieu d'un tampon plus large, comme dans un batch réseau
+        ByteBuffer batch = ByteBuffer.allocate(bytes.length + 64);
+        batch.position(32);
+        batch.put(bytes);
+        slice = batch.position(32).limit(32 + bytes.length).slice();
+    }
+
+    @Benchmark
+    public byte[] legacySerialize() throws Exception {
+        return legacyMapper.writeValueAsBytes(quote);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(TOPIC, quote);
+    }
+
+    @Benchmark
+    public EnrichedQuote legacyDeserialize() throws Exception {
+        return legacyMapper.readValue(bytes, EnrichedQuote.class);
+    }
+
+    @Benchmark
+    public EnrichedQuote deserialize() {
+        return deserializer.deserialize(TOPIC, bytes);
+    }
+
+    @Benchmark
+    public EnrichedQuote deserializeByteBuffer() {
+        return deserializer.deserialize(TOPIC, null, slice);
+    }
+}
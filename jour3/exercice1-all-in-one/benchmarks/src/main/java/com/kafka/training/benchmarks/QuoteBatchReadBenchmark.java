@@ -0,0 +1,69 @@
+package com.kafka.training.benchmarks;
+
+import com.kafka.training.common.model.EnrichedQuote;
+import com.kafka.training.queryapi.service.QuoteBatchReader;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Latence de lecture d'une page de devis (GET /api/quotes?limit=N) :
+ * - perKeyGet : un GET par devis (ancien QuoteQueryService)
+ * - batchRead : QuoteBatchReader (MGET par lots pipelinés + parsing parallèle)
+ *
+ * Mode SampleTime pour obtenir les percentiles (p99) en plus de la moyenne.
+ * Nécessite un Redis local (make start).
+ *
+ * java -jar benchmarks/target/benchmarks.jar QuoteBatchReadBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class QuoteBatchReadBenchmark {
+
+    private static final int QUOTE_COUNT = 10_000;
+
+    @Param({"100", "1000"})
+    private int limit;
+
+    @Param({"100", "500"})
+    private int batchSize;
+
+    private RedisQuoteFixture fixture;
+    private StringRedisTemplate redisTemplate;
+    private QuoteBatchReader batchReader;
+    private List<String> keys;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        fixture = new RedisQuoteFixture();
+        keys = fixture.load(QUOTE_COUNT, 1000).subList(0, limit);
+        redisTemplate = fixture.redisTemplate();
+        batchReader = new QuoteBatchReader(redisTemplate, fixture.objectMapper(), batchSize, 256);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public List<EnrichedQuote> perKeyGet() {
+        return keys.stream()
+                .map(key -> fixture.parse(redisTemplate.opsForValue().get(key)))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<EnrichedQuote> batchRead() {
+        return batchReader.read(keys);
+    }
+}
@@ -0,0 +1,106 @@
+package com.kafka.training.benchmarks;
+
+import com.kafka.training.common.model.EnrichedQuote;
+import com.kafka.training.queryapi.service.QuoteBatchReader;
+import com.kafka.training.queryapi.service.QuoteIndexService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Compare la recherche des devis d'un client / d'un produit dans Redis :
+ * - keys* : approche historique de query-api (KEYS "Q-*" puis un GET par clé)
+ * - index* : chemin de QuoteQueryService, index secondaires de QuoteIndexService
+ *   (ZRANGE) puis QuoteBatchReader (MGET par lots pipelinés)
+ * - firstPageByIndex : GET /api/quotes?limit=100, page par curseur sur quotes:idx:all
+ *
+ * Nécessite un Redis local (make start).
+ *
+ * java -jar benchmarks/target/benchmarks.jar QuoteIndexBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class QuoteIndexBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int quoteCount;
+
+    @Param({"1000"})
+    private int customerCount;
+
+    @Param({"100"})
+    private int pageSize;
+
+    private RedisQuoteFixture fixture;
+    private StringRedisTemplate redisTemplate;
+    private QuoteIndexService indexService;
+    private QuoteBatchReader batchReader;
+    private String customerId;
+    private String productCode;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        fixture = new RedisQuoteFixture();
+        fixture.load(quoteCount, customerCount);
+        redisTemplate = fixture.redisTemplate();
+        indexService = fixture.indexService();
+        batchReader = fixture.batchReader();
+
+        customerId = RedisQuoteFixture.customer(0);
+        productCode = RedisQuoteFixture.PRODUCT_CODES.get(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public List<EnrichedQuote> customerByKeysScan() {
+        return scanAndFilter(quote -> customerId.equals(quote.getCustomerId()));
+    }
+
+    @Benchmark
+    public List<EnrichedQuote> customerByIndex() {
+        return batchReader.read(indexService.findQuoteIdsByCustomer(customerId));
+    }
+
+    @Benchmark
+    public List<EnrichedQuote> productByKeysScan() {
+        return scanAndFilter(quote -> productCode.equals(quote.getProductCode()));
+    }
+
+    @Benchmark
+    public List<EnrichedQuote> productByIndex() {
+        return batchReader.read(indexService.findQuoteIdsByProduct(productCode));
+    }
+
+    @Benchmark
+    public List<EnrichedQuote> firstPageByIndex() {
+        return batchReader.read(indexService.findQuoteIdsAfter(null, pageSize).getQuoteIds());
+    }
+
+    private List<EnrichedQuote> scanAndFilter(Predicate<EnrichedQuote> predicate) {
+        Set<String> keys = redisTemplate.keys("Q-*");
+        List<EnrichedQuote> result = new ArrayList<>();
+        if (keys == null) {
+            return result;
+        }
+        for (String key : keys) {
+            EnrichedQuote quote = fixture.parse(redisTemplate.opsForValue().get(key));
+            if (quote != null && predicate.test(quote)) {
+                result.add(quote);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,49 @@
+package com.kafka.training.benchmarks;
+
+import com.kafka.training.common.model.EnrichedQuote;
+import com.kafka.training.common.model.ProductPricing;
+import com.kafka.training.common.model.Quote;
+import com.kafka.training.common.model.QuoteAggregate;
+import com.kafka.training.common.model.QuoteStatus;
+import com.kafka.training.streams.topology.QuoteStreamTopology;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût des fonctions métier de QuoteStreamTopology, hors Kafka Streams :
+ * - join      : enrichissement devis / prix produit (QuoteStreamTopology.enrich)
+ * - aggregate : agrégation horaire par client (QuoteStreamTopology.aggregate)
+ *
+ * java -jar benchmarks/target/benchmarks.jar QuoteJoinBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QuoteJoinBenchmark {
+
+    private Quote quote;
+    private ProductPricing pricing;
+    private QuoteAggregate aggregate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        long now = 1_700_000_000_000L;
+        quote = new Quote("Q-1a2b3c4d", "C001", QuoteStatus.VALIDATED, "AUTO", 600.0, null, now, now);
+        pricing = new ProductPricing("AUTO", "Auto Insurance", 500.0, 0.20);
+        aggregate = new QuoteAggregate(null, null, null, 0L, 0.0);
+    }
+
+    @Benchmark
+    public EnrichedQuote join() {
+        return QuoteStreamTopology.enrich(quote, pricing);
+    }
+
+    @Benchmark
+    public QuoteAggregate aggregate() {
+        return QuoteStreamTopology.aggregate("C001", quote, aggregate);
+    }
+}
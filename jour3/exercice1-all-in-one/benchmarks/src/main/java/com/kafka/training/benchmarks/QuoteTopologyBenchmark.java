@@ -0,0 +1,157 @@
+package com.kafka.training.benchmarks;
+
+import com.kafka.training.common.model.ProductPricing;
+import com.kafka.training.common.model.Quote;
+import com.kafka.training.common.model.QuoteStatus;
+import com.kafka.training.common.serde.QuoteCodecs;
+import com.kafka.training.common.serde.SerdeFormat;
+import com.kafka.training.common.serde.TopicSerdes;
+import com.kafka.training.streams.profiling.TopologyProfiler;
+import com.kafka.training.streams.topology.AggregateEmitPolicy;
+import com.kafka.training.streams.topology.PricingJoinMode;
+import com.kafka.training.streams.topology.QuoteStreamTopology;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TestOutputTopic;
+import org.apache.kafka.streams.TopologyConfig;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.apache.kafka.streams.test.TestRecord;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Traversée complète de QuoteStreamTopology (filtre, jointure, agrégation, stores)
+ * avec TopologyTestDriver, sans broker.
+ *
+ * internalFormat : serde des repartitions et des stores d'agrégats (quotes.serde.topics).
+ * pricingJoin : jointure avec le référentiel de prix (GlobalKTable ou KTable + repartition).
+ * emitMode : émission des agrégats horaires. Un devis par milliseconde de temps d'événement
+ * et d'horloge (advanceWallClockTime) : les fenêtres d'une heure ne se ferment pas pendant
+ * la mesure, le punctuator PERIODIC se déclenche toutes les 10 000 devis.
+ * Les stores sont en mémoire (default.dsl.store), voir setUp. Le score inclut le
+ * commit que le driver effectue après chaque enregistrement.
+ *
+ * En fin d'essai, les octets écrits par devis sont affichés pour chaque topic, y compris
+ * les topics internes (repartition, changelog) : c'est ce que le broker reçoit, puis
+ * renvoie aux consommateurs.
+ *
+ * java -jar benchmarks/target/benchmarks.jar QuoteTopologyBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QuoteTopologyBenchmark {
+
+    private static final int QUOTE_COUNT = 1_000;
+    private static final List<String> PRODUCT_CODES = List.of("AUTO", "HOME", "HEALTH", "LIFE", "TRAVEL");
+
+    @Param({"JSON", "BINARY"})
+    private SerdeFormat internalFormat;
+
+    @Param({"REPARTITION", "GLOBAL"})
+    private PricingJoinMode pricingJoin;
+
+    @Param({"UPDATES", "WINDOW_CLOSE", "PERIODIC"})
+    private AggregateEmitPolicy.Mode emitMode;
+
+    private TopologyTestDriver driver;
+    private TestInputTopic<String, Quote> quotesTopic;
+    private final Map<String, TestOutputTopic<byte[], byte[]>> outputTopics = new LinkedHashMap<>();
+    private final Map<String, Long> bytesByTopic = new TreeMap<>();
+    private Quote[] quotes;
+    private long timestamp;
+    private long piped;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        TopicSerdes topicSerdes = new TopicSerdes(SerdeFormat.JSON, Map.of(
+                "quotes-by-product", internalFormat,
+                "quotes-by-customer", internalFormat,
+                QuoteStreamTopology.QUOTE_AGGREGATES_STORE, internalFormat,
+                QuoteStreamTopology.AGGREGATE_EMIT_BUFFER_STORE, internalFormat
+        ), QuoteCodecs.ALL);
+
+        Properties props = new Properties();
+        props.put(StreamsConfig.APPLICATION_ID_CONFIG, "quote-topology-benchmark");
+        props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "dummy:9092");
+        props.put(StreamsConfig.DEFAULT_KEY_SERDE_CLASS_CONFIG, Serdes.String().getClass());
+        props.put(StreamsConfig.DEFAULT_VALUE_SERDE_CLASS_CONFIG, Serdes.String().getClass());
+        props.put(StreamsConfig.TOPOLOGY_OPTIMIZATION_CONFIG, StreamsConfig.OPTIMIZE);
+        // Le driver commite après chaque enregistrement : avec RocksDB, chaque commit force un flush
+        // sur disque et masque le coût de la topologie. Stores en mémoire pour ce benchmark.
+        props.put(StreamsConfig.DEFAULT_DSL_STORE_CONFIG, StreamsConfig.IN_MEMORY);
+        props.put(StreamsConfig.STATE_DIR_CONFIG, Files.createTempDirectory("quote-topology").toString());
+
+        StreamsBuilder builder = new StreamsBuilder(new TopologyConfig(new StreamsConfig(props)));
+        new QuoteStreamTopology(topicSerdes, pricingJoin, new AggregateEmitPolicy(emitMode), Duration.ofDays(1),
+                TopologyProfiler.disabled())
+                .buildPipeline(builder);
+        driver = new TopologyTestDriver(builder.build(props), props, Instant.ofEpochMilli(0));
+
+        TestInputTopic<String, ProductPricing> pricingTopic = driver.createInputTopic("product-pricing",
+                new StringSerializer(), topicSerdes.forTopic("product-pricing", ProductPricing.class).serializer());
+        PRODUCT_CODES.forEach(code -> pricingTopic.pipeInput(code, new ProductPricing(code, code + " Insurance", 500.0, 0.20)));
+
+        quotesTopic = driver.createInputTopic("devis-events",
+                new StringSerializer(), topicSerdes.forTopic("devis-events", Quote.class).serializer());
+
+        quotes = new Quote[QUOTE_COUNT];
+        for (int i = 0; i < QUOTE_COUNT; i++) {
+            String quoteId = String.format("Q-%08d", i);
+            quotes[i] = new Quote(quoteId, String.format("C%03d", i % 100), QuoteStatus.VALIDATED,
+                    PRODUCT_CODES.get(i % PRODUCT_CODES.size()), 400.0 + i % 500, null, 0L, 0L);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        driver.close();
+        System.out.printf("%nBytes per quote (%s, %s, %s), %d quotes:%n", pricingJoin, emitMode, internalFormat, piped);
+        bytesByTopic.forEach((topic, bytes) ->
+                System.out.printf("  %-90s %8.1f%n", topic, (double) bytes / Math.max(1, piped)));
+    }
+
+    @Benchmark
+    public int pipeQuote() {
+        Quote quote = quotes[next];
+        next = (next + 1) % QUOTE_COUNT;
+        quotesTopic.pipeInput(quote.getQuoteId(), quote, timestamp++);
+        driver.advanceWallClockTime(Duration.ofMillis(1));
+        piped++;
+
+        // Vider les topics produits (sorties et topics internes) : le driver les garde en mémoire sinon
+        int produced = 0;
+        for (String topicName : driver.producedTopicNames()) {
+            TestOutputTopic<byte[], byte[]> topic = outputTopics.computeIfAbsent(topicName,
+                    name -> driver.createOutputTopic(name, new ByteArrayDeserializer(), new ByteArrayDeserializer()));
+            long bytes = 0;
+            for (TestRecord<byte[], byte[]> record : topic.readRecordsToList()) {
+                bytes += length(record.key()) + length(record.value());
+                produced++;
+            }
+            bytesByTopic.merge(topicName, bytes, Long::sum);
+        }
+        return produced;
+    }
+
+    private static int length(byte[] bytes) {
+        return bytes != null ? bytes.length : 0;
+    }
+}
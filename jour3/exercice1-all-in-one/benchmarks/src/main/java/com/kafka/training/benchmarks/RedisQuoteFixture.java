@@ -0,0 +1,137 @@
+package com.kafka.training.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kafka.training.common.model.EnrichedQuote;
+import com.kafka.training.common.model.QuoteStatus;
+import com.kafka.training.queryapi.service.QuoteBatchReader;
+import com.kafka.training.queryapi.service.QuoteIndexService;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.*;
+
+/**
+ * Jeu de devis chargé dans un Redis local pour les benchmarks
+ *
+ * Les données sont écrites dans la base -Dredis.database (15 par défaut),
+ * vidée au chargement et à la fermeture. Les clés suivent le format de
+ * query-api : Q-xxxxxxxx pour les devis ; les index (client, produit, all, owner)
+ * sont écrits par QuoteIndexService, comme en production.
+ */
+class RedisQuoteFixture implements AutoCloseable {
+
+    static final List<String> PRODUCT_CODES = Arrays.asList("AUTO", "HOME", "HEALTH", "LIFE", "TRAVEL");
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+    // Valeurs par défaut de query-api (quotes.read.batch-size, quotes.read.parallel-threshold)
+    private static final int READ_BATCH_SIZE = 500;
+    private static final int READ_PARALLEL_THRESHOLD = 256;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LettuceConnectionFactory connectionFactory;
+    private final StringRedisTemplate redisTemplate;
+    private final QuoteBatchReader batchReader;
+    private final QuoteIndexService indexService;
+
+    RedisQuoteFixture() {
+        RedisStandaloneConfiguration configuration = new RedisStandaloneConfiguration(
+                System.getProperty("redis.host", "localhost"),
+                Integer.getInteger("redis.port", 6379));
+        configuration.setDatabase(Integer.getInteger("redis.database", 15));
+
+        connectionFactory = new LettuceConnectionFactory(configuration);
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        batchReader = new QuoteBatchReader(redisTemplate, objectMapper, READ_BATCH_SIZE, READ_PARALLEL_THRESHOLD);
+        indexService = new QuoteIndexService(redisTemplate, batchReader);
+    }
+
+    StringRedisTemplate redisTemplate() {
+        return redisTemplate;
+    }
+
+    ObjectMapper objectMapper() {
+        return objectMapper;
+    }
+
+    QuoteBatchReader batchReader() {
+        return batchReader;
+    }
+
+    QuoteIndexService indexService() {
+        return indexService;
+    }
+
+    /**
+     * Vide la base puis charge quoteCount devis (et leurs index) répartis sur customerCount clients
+     *
+     * @return les clés des devis chargés, dans l'ordre de création
+     */
+    List<String> load(int quoteCount, int customerCount) throws Exception {
+        flushDb();
+
+        Random random = new Random(42);
+        long now = System.currentTimeMillis();
+        List<String> keys = new ArrayList<>(quoteCount);
+
+        for (int start = 0; start < quoteCount; start += LOAD_BATCH_SIZE) {
+            Map<String, String> values = new LinkedHashMap<>();
+            List<EnrichedQuote> batch = new ArrayList<>(LOAD_BATCH_SIZE);
+            for (int i = start; i < Math.min(start + LOAD_BATCH_SIZE, quoteCount); i++) {
+                double basePremium = random.nextDouble() * 500 + 100;
+                EnrichedQuote quote = new EnrichedQuote(
+                        String.format("Q-%08d", i),
+                        customer(i % customerCount),
+                        QuoteStatus.VALIDATED,
+                        PRODUCT_CODES.get(i % PRODUCT_CODES.size()),
+                        basePremium,
+                        basePremium * 1.2,
+                        now - i,
+                        now,
+                        "Benchmark Insurance",
+                        500.0,
+                        0.20
+                );
+                batch.add(quote);
+                keys.add(quote.getQuoteId());
+                values.put(quote.getQuoteId(), objectMapper.writeValueAsString(quote));
+            }
+
+            // Valeurs comme Kafka Connect, index comme QuoteChangeListener
+            redisTemplate.opsForValue().multiSet(values);
+            indexService.indexAll(batch);
+        }
+        return keys;
+    }
+
+    EnrichedQuote parse(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, EnrichedQuote.class);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        flushDb();
+        connectionFactory.destroy();
+    }
+
+    static String customer(int index) {
+        return String.format("C%04d", index);
+    }
+
+    private void flushDb() {
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().flushDb();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,87 @@
+package com.kafka.training.benchmarks;
+
+import com.kafka.training.common.model.EnrichedQuote;
+import com.kafka.training.common.model.ProductPricing;
+import com.kafka.training.common.model.Quote;
+import com.kafka.training.common.model.QuoteAggregate;
+import com.kafka.training.common.model.QuoteStatus;
+import com.kafka.training.common.serde.QuoteCodecs;
+import com.kafka.training.common.serde.SerdeFormat;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serializer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût de sérialisation / désérialisation d'un enregistrement, JsonSerde vs BinarySerde,
+ * pour chaque modèle de devis.
+ *
+ * La taille d'un enregistrement (bytes/record) est affichée au démarrage de chaque essai.
+ * Ne nécessite ni Kafka ni Redis.
+ *
+ * java -jar benchmarks/target/benchmarks.jar SerdeBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerdeBenchmark {
+
+    private static final String TOPIC = "benchmark";
+
+    @Param({"QUOTE", "ENRICHED_QUOTE", "PRODUCT_PRICING", "QUOTE_AGGREGATE"})
+    private String model;
+
+    @Param({"JSON", "BINARY"})
+    private SerdeFormat format;
+
+    private Serializer<Object> serializer;
+    private Deserializer<Object> deserializer;
+    private Object record;
+    private byte[] bytes;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        Serde<?> serde = switch (model) {
+            case "QUOTE" -> format.serde(Quote.class, QuoteCodecs.QUOTE);
+            case "ENRICHED_QUOTE" -> format.serde(EnrichedQuote.class, QuoteCodecs.ENRICHED_QUOTE);
+            case "PRODUCT_PRICING" -> format.serde(ProductPricing.class, QuoteCodecs.PRODUCT_PRICING);
+            case "QUOTE_AGGREGATE" -> format.serde(QuoteAggregate.class, QuoteCodecs.QUOTE_AGGREGATE);
+            default -> throw new IllegalArgumentException("Unknown model " + model);
+        };
+        serializer = (Serializer<Object>) serde.serializer();
+        deserializer = (Deserializer<Object>) serde.deserializer();
+        record = sample(model);
+        bytes = serializer.serialize(TOPIC, record);
+
+        System.out.printf("%n%s / %s : %d bytes/record%n", model, format, bytes.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(TOPIC, record);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return deserializer.deserialize(TOPIC, bytes);
+    }
+
+    static Object sample(String model) {
+        long now = 1_700_000_000_000L;
+        return switch (model) {
+            case "QUOTE" -> new Quote("Q-1a2b3c4d", "C001", QuoteStatus.VALIDATED, "AUTO",
+                    600.0, null, now, now + 60_000);
+            case "ENRICHED_QUOTE" -> new EnrichedQuote("Q-1a2b3c4d", "C001", QuoteStatus.VALIDATED, "AUTO",
+                    600.0, 720.0, now, now + 60_000, "Auto Insurance", 500.0, 0.20);
+            case "PRODUCT_PRICING" -> new ProductPricing("AUTO", "Auto Insurance", 500.0, 0.20);
+            case "QUOTE_AGGREGATE" -> new QuoteAggregate("C001", now, now + 3_600_000, 42L, 35_700.0);
+            default -> throw new IllegalArgumentException("Unknown model " + model);
+        };
+    }
+}
@@ -0,0 +1,70 @@
+package com.kafka.training.common.loadgen;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tirage de l'indice de clé (0..keyCount-1) du prochain envoi
+ *
+ * Utilisé par un seul thread (celui du générateur) : pas de synchronisation.
+ */
+public interface KeyDistribution {
+
+    /**
+     * @param elapsedNanos instant planifié de l'envoi, relatif au début de la campagne
+     */
+    int next(long elapsedNanos, SplittableRandom random);
+
+    static KeyDistribution of(LoadProfile profile) {
+        return switch (profile.getDistribution()) {
+            case UNIFORM -> uniform(profile.getKeyCount());
+            case ZIPF -> zipf(profile.getKeyCount(), profile.getZipfExponent());
+            case BURSTY -> bursty(profile.getKeyCount(), profile.getBurstKeys(),
+                    profile.getBurstPeriodMs(), profile.getBurstDurationMs());
+        };
+    }
+
+    static KeyDistribution uniform(int keyCount) {
+        return (elapsedNanos, random) -> random.nextInt(keyCount);
+    }
+
+    /**
+     * Loi de Zipf : P(rang k) proportionnelle à 1 / k^s.
+     * La fonction de répartition est précalculée, chaque tirage est une recherche dichotomique.
+     */
+    static KeyDistribution zipf(int keyCount, double exponent) {
+        double[] cdf = new double[keyCount];
+        double sum = 0;
+        for (int k = 0; k < keyCount; k++) {
+            sum += 1.0 / Math.pow(k + 1, exponent);
+            cdf[k] = sum;
+        }
+        for (int k = 0; k < keyCount; k++) {
+            cdf[k] /= sum;
+        }
+        return (elapsedNanos, random) -> {
+            int index = Arrays.binarySearch(cdf, random.nextDouble());
+            int key = index >= 0 ? index : -index - 1;
+            return Math.min(key, keyCount - 1);
+        };
+    }
+
+    /**
+     * Uniforme hors rafale. Pendant les burstDurationMs premières millisecondes de chaque
+     * période, tout le trafic porte sur burstKeys clés consécutives, décalées à chaque
+     * rafale pour que la partition chaude change.
+     */
+    static KeyDistribution bursty(int keyCount, int burstKeys, long burstPeriodMs, long burstDurationMs) {
+        long periodNanos = TimeUnit.MILLISECONDS.toNanos(burstPeriodMs);
+        long burstNanos = TimeUnit.MILLISECONDS.toNanos(burstDurationMs);
+        return (elapsedNanos, random) -> {
+            long period = elapsedNanos / periodNanos;
+            if (elapsedNanos % periodNanos >= burstNanos) {
+                return random.nextInt(keyCount);
+            }
+            long firstHotKey = (period * burstKeys) % keyCount;
+            return (int) ((firstHotKey + random.nextInt(burstKeys)) % keyCount);
+        };
+    }
+}
@@ -0,0 +1,13 @@
+package com.kafka.training.common.loadgen;
+
+/**
+ * Distribution des clés d'une campagne de charge
+ */
+public enum KeyDistributionType {
+    // Toutes les clés ont la même probabilité
+    UNIFORM,
+    // Quelques clés concentrent l'essentiel du trafic (partitions chaudes)
+    ZIPF,
+    // Uniforme, avec des rafales périodiques sur un petit groupe de clés qui change à chaque rafale
+    BURSTY
+}
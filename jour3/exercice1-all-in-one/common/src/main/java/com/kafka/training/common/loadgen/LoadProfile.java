@@ -0,0 +1,125 @@
+package com.kafka.training.common.loadgen;
+
+/**
+ * Paramètres d'une campagne de charge en boucle ouverte
+ *
+ * Les envois suivent un planning fixe (ratePerSecond) pendant durationSeconds,
+ * quel que soit le temps de réponse de Kafka. Les clés sont tirées parmi
+ * keyCount clés selon la distribution choisie.
+ */
+public class LoadProfile {
+
+    public static final int MAX_KEY_COUNT = 1_000_000;
+
+    private int ratePerSecond = 1000;
+    private int durationSeconds = 60;
+    private int keyCount = 1000;
+    private KeyDistributionType distribution = KeyDistributionType.UNIFORM;
+    // ZIPF : exposant s (1.0 = loi de Zipf classique, plus grand = plus concentré)
+    private double zipfExponent = 1.0;
+    // BURSTY : toutes les burstPeriodMs, burstDurationMs de trafic sur burstKeys clés chaudes
+    private long burstPeriodMs = 10_000;
+    private long burstDurationMs = 2_000;
+    private int burstKeys = 10;
+    // Nombre max d'envois non acquittés (borne la mémoire si Kafka décroche)
+    private int maxInFlight = 10_000;
+
+    public LoadProfile() {
+    }
+
+    /**
+     * @throws IllegalArgumentException si un paramètre est hors bornes
+     */
+    public void validate() {
+        if (ratePerSecond <= 0 || durationSeconds <= 0 || maxInFlight <= 0) {
+            throw new IllegalArgumentException("ratePerSecond, durationSeconds and maxInFlight must be positive");
+        }
+        if (keyCount <= 0 || keyCount > MAX_KEY_COUNT) {
+            throw new IllegalArgumentException("keyCount must be between 1 and " + MAX_KEY_COUNT);
+        }
+        if (distribution == null) {
+            throw new IllegalArgumentException("distribution is required");
+        }
+        if (distribution == KeyDistributionType.ZIPF && zipfExponent <= 0) {
+            throw new IllegalArgumentException("zipfExponent must be positive");
+        }
+        if (distribution == KeyDistributionType.BURSTY
+                && (burstPeriodMs <= 0 || burstDurationMs <= 0 || burstDurationMs > burstPeriodMs
+                || burstKeys <= 0 || burstKeys > keyCount)) {
+            throw new IllegalArgumentException(
+                    "bursty profile requires 0 < burstDurationMs <= burstPeriodMs and 0 < burstKeys <= keyCount");
+        }
+    }
+
+    public int getRatePerSecond() {
+        return ratePerSecond;
+    }
+
+    public void setRatePerSecond(int ratePerSecond) {
+        this.ratePerSecond = ratePerSecond;
+    }
+
+    public int getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public void setDurationSeconds(int durationSeconds) {
+        this.durationSeconds = durationSeconds;
+    }
+
+    public int getKeyCount() {
+        return keyCount;
+    }
+
+    public void setKeyCount(int keyCount) {
+        this.keyCount = keyCount;
+    }
+
+    public KeyDistributionType getDistribution() {
+        return distribution;
+    }
+
+    public void setDistribution(KeyDistributionType distribution) {
+        this.distribution = distribution;
+    }
+
+    public double getZipfExponent() {
+        return zipfExponent;
+    }
+
+    public void setZipfExponent(double zipfExponent) {
+        this.zipfExponent = zipfExponent;
+    }
+
+    public long getBurstPeriodMs() {
+        return burstPeriodMs;
+    }
+
+    public void setBurstPeriodMs(long burstPeriodMs) {
+        this.burstPeriodMs = burstPeriodMs;
+    }
+
+    public long getBurstDurationMs() {
+        return burstDurationMs;
+    }
+
+    public void setBurstDurationMs(long burstDurationMs) {
+        this.burstDurationMs = burstDurationMs;
+    }
+
+    public int getBurstKeys() {
+        return burstKeys;
+    }
+
+    public void setBurstKeys(int burstKeys) {
+        this.burstKeys = burstKeys;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public void setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+}
@@ -0,0 +1,172 @@
+package com.kafka.training.common.loadgen;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Générateur de charge en boucle ouverte
+ *
+ * Le i-ème envoi est planifié à start + i / ratePerSecond, indépendamment des
+ * acquittements précédents (contrairement à une boucle send + sleep). Si le
+ * générateur prend du retard (Kafka lent, maxInFlight atteint), les envois
+ * partent dès que possible et la latence est mesurée depuis l'instant planifié :
+ * le retard accumulé apparaît dans les percentiles au lieu d'être masqué
+ * ("coordinated omission").
+ */
+public class OpenLoopLoadGenerator implements Runnable {
+
+    /**
+     * Envoi d'un enregistrement pour l'indice de clé donné
+     */
+    @FunctionalInterface
+    public interface Sender {
+        CompletableFuture<?> send(int key, long sequence);
+    }
+
+    private final LoadProfile profile;
+    private final Sender sender;
+    private final KeyDistribution distribution;
+    private final LatencyHistogram responseTime;
+    private final LatencyHistogram serviceTime;
+    private final Semaphore inFlight;
+    private final SplittableRandom random = new SplittableRandom();
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder acknowledged = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final AtomicLong maxScheduleLagNanos = new AtomicLong();
+
+    private volatile boolean running;
+    private volatile boolean started;
+    private volatile boolean finished;
+    private volatile long startNanos;
+    private volatile long endNanos;
+
+    public OpenLoopLoadGenerator(LoadProfile profile, Sender sender,
+                                 LatencyHistogram responseTime, LatencyHistogram serviceTime) {
+        profile.validate();
+        this.profile = profile;
+        this.sender = sender;
+        this.distribution = KeyDistribution.of(profile);
+        this.responseTime = responseTime;
+        this.serviceTime = serviceTime;
+        this.inFlight = new Semaphore(profile.getMaxInFlight());
+        this.running = true;
+    }
+
+    @Override
+    public void run() {
+        double intervalNanos = 1_000_000_000.0 / profile.getRatePerSecond();
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(profile.getDurationSeconds());
+        startNanos = start;
+        started = true;
+
+        try {
+            for (long sequence = 0; running; sequence++) {
+                long intended = start + (long) (sequence * intervalNanos);
+                if (intended >= deadline) {
+                    break;
+                }
+                long now = System.nanoTime();
+                while (now < intended && running) {
+                    LockSupport.parkNanos(intended - now);
+                    now = System.nanoTime();
+                }
+                if (!running) {
+                    break;
+                }
+                maxScheduleLagNanos.accumulateAndGet(now - intended, Math::max);
+
+                inFlight.acquire();
+                int key = distribution.next(intended - start, random);
+                send(key, sequence, intended);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            endNanos = System.nanoTime();
+            finished = true;
+            running = false;
+        }
+    }
+
+    private void send(int key, long sequence, long intendedNanos) {
+        long sendNanos = System.nanoTime();
+        try {
+            sender.send(key, sequence).whenComplete((result, ex) -> {
+                long ackNanos = System.nanoTime();
+                if (ex == null) {
+                    acknowledged.increment();
+                    responseTime.recordNanos(ackNanos - intendedNanos);
+                    serviceTime.recordNanos(ackNanos - sendNanos);
+                } else {
+                    failed.increment();
+                }
+                inFlight.release();
+            });
+            sent.increment();
+        } catch (RuntimeException e) {
+            failed.increment();
+            inFlight.release();
+        }
+    }
+
+    /**
+     * Arrête la campagne (les envois en cours seront tout de même acquittés)
+     */
+    public void stop() {
+        running = false;
+    }
+
+    public LoadProfile getProfile() {
+        return profile;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public long getSent() {
+        return sent.sum();
+    }
+
+    public long getAcknowledged() {
+        return acknowledged.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public long getInFlight() {
+        return profile.getMaxInFlight() - inFlight.availablePermits();
+    }
+
+    public LoadReport report() {
+        long elapsedNanos = 0;
+        if (started) {
+            elapsedNanos = (finished ? endNanos : System.nanoTime()) - startNanos;
+        }
+        long sentCount = getSent();
+
+        LoadReport report = new LoadReport();
+        report.setRunning(running);
+        report.setProfile(profile);
+        report.setElapsedMs(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        report.setSent(sentCount);
+        report.setAcknowledged(getAcknowledged());
+        report.setFailed(getFailed());
+        report.setInFlight(getInFlight());
+        report.setActualRatePerSecond(elapsedNanos > 0 ? sentCount * 1e9 / elapsedNanos : 0.0);
+        report.setMaxScheduleLagMs(maxScheduleLagNanos.get() / 1_000_000.0);
+        report.setResponseTime(responseTime.summaryMillis());
+        report.setServiceTime(serviceTime.summaryMillis());
+        return report;
+    }
+}
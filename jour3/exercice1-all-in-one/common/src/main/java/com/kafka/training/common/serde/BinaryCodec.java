@@ -0,0 +1,17 @@
+package com.kafka.training.common.serde;
+
+/**
+ * Schéma binaire d'un modèle : ordre et type des champs
+ *
+ * Règles d'évolution : les nouveaux champs sont ajoutés en fin et version()
+ * est incrémentée ; read() reçoit la version de l'enregistrement lu.
+ * Les constantes d'enum ne sont jamais réordonnées (encodées par ordinal).
+ */
+public interface BinaryCodec<T> {
+
+    int version();
+
+    void write(T value, BinaryWriter out);
+
+    T read(BinaryReader in, int version);
+}
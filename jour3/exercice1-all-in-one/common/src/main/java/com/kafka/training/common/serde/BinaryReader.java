@@ -0,0 +1,86 @@
+package com.kafka.training.common.serde;
+
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Lecture d'un enregistrement encodé par BinaryWriter
+ */
+public final class BinaryReader {
+
+    private final ByteBuffer buffer;
+
+    public BinaryReader(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    public int readByte() {
+        return buffer.get() & 0xFF;
+    }
+
+    public long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new SerializationException("Malformed varint");
+    }
+
+    public long readZigZagLong() {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public double readDouble() {
+        return buffer.getDouble();
+    }
+
+    public String readString() {
+        int length = (int) readVarLong() - 1;
+        if (length < 0) {
+            return null;
+        }
+        String value;
+        if (buffer.hasArray()) {
+            value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return value;
+    }
+
+    public Long readNullableLong() {
+        return readByte() == 0 ? null : readZigZagLong();
+    }
+
+    public Double readNullableDouble() {
+        return readByte() == 0 ? null : readDouble();
+    }
+
+    public <E extends Enum<E>> E readEnum(E[] values) {
+        int ordinal = (int) readVarLong() - 1;
+        if (ordinal < 0) {
+            return null;
+        }
+        if (ordinal >= values.length) {
+            throw new SerializationException("Unknown enum ordinal " + ordinal);
+        }
+        return values[ordinal];
+    }
+
+    /**
+     * Vrai s'il reste des champs : permet à un codec de lire des versions plus anciennes (champs ajoutés en fin)
+     */
+    public boolean hasRemaining() {
+        return buffer.hasRemaining();
+    }
+}
@@ -0,0 +1,115 @@
+package com.kafka.training.common.serde;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+/**
+ * Serde binaire compact, alternative à JsonSerde
+ *
+ * Format : [MAGIC 0x00][version du schéma][champs du BinaryCodec]
+ *
+ * Migration : un document JSON ne commence jamais par 0x00, le désérialiseur
+ * relit donc aussi les anciens enregistrements JSON d'un topic. On peut passer
+ * un topic en BINARY sans le vider ; le retour en JSON impose en revanche que
+ * tous les enregistrements binaires aient été consommés.
+ */
+public class BinarySerde<T> implements Serde<T> {
+
+    public static final byte MAGIC = 0x00;
+
+    private static final int INITIAL_BUFFER_SIZE = 128;
+    // Au-delà, le tampon n'est pas conservé (évite de garder un gros tableau par thread)
+    private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+
+    private static final ThreadLocal<BinaryWriter> WRITERS =
+            ThreadLocal.withInitial(() -> new BinaryWriter(INITIAL_BUFFER_SIZE));
+
+    private final BinaryCodec<T> codec;
+    private final Deserializer<T> jsonDeserializer;
+
+    public BinarySerde(Class<T> targetType, BinaryCodec<T> codec) {
+        this.codec = codec;
+        this.jsonDeserializer = new JsonSerde<>(targetType).deserializer();
+    }
+
+    @Override
+    public Serializer<T> serializer() {
+        return new Serializer<T>() {
+            @Override
+            public byte[] serialize(String topic, T data) {
+                if (data == null) {
+                    return null;
+                }
+                BinaryWriter writer = WRITERS.get();
+                try {
+                    writer.writeByte(MAGIC);
+                    writer.writeByte(codec.version());
+                    codec.write(data, writer);
+                    return writer.toByteArray();
+                } catch (Exception e) {
+                    throw new SerializationException("Error serializing binary message", e);
+                } finally {
+                    if (writer.capacity() > MAX_RETAINED_BUFFER_SIZE) {
+                        WRITERS.remove();
+                    } else {
+                        writer.reset();
+                    }
+                }
+            }
+        };
+    }
+
+    @Override
+    public Deserializer<T> deserializer() {
+        return new Deserializer<T>() {
+            @Override
+            public T deserialize(String topic, byte[] data) {
+                if (data == null) {
+                    return null;
+                }
+                return deserialize(topic, null, ByteBuffer.wrap(data));
+            }
+
+            @Override
+            public T deserialize(String topic, Headers headers, ByteBuffer data) {
+                if (data == null) {
+                    return null;
+                }
+                if (!data.hasRemaining() || data.get(data.position()) != MAGIC) {
+                    // Enregistrement antérieur à la migration
+                    return jsonDeserializer.deserialize(topic, headers, data);
+                }
+                BinaryReader reader = new BinaryReader(data.duplicate());
+                try {
+                    // En-tête compris : un enregistrement tronqué (octet magique seul) reste une SerializationException
+                    reader.readByte();
+                    int version = reader.readByte();
+                    if (version < 1 || version > codec.version()) {
+                        throw new SerializationException("Unsupported binary schema version " + version);
+                    }
+                    return codec.read(reader, version);
+                } catch (SerializationException e) {
+                    throw e;
+                } catch (RuntimeException e) {
+                    throw new SerializationException("Error deserializing binary message", e);
+                }
+            }
+        };
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        // No additional configuration needed
+    }
+
+    @Override
+    public void close() {
+        // Nothing to close
+    }
+}
@@ -0,0 +1,106 @@
+package com.kafka.training.common.serde;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Tampon d'écriture extensible pour l'encodage binaire des modèles
+ *
+ * - entiers : varint (LEB128), zigzag pour les valeurs signées
+ * - String  : longueur + 1 en varint (0 = null), puis UTF-8
+ * - Long / Double / enum nullables : 0 = null, sinon 1 puis la valeur (ordinal + 1 pour les enums)
+ */
+public final class BinaryWriter {
+
+    private byte[] buffer;
+    private int position;
+
+    public BinaryWriter(int initialCapacity) {
+        this.buffer = new byte[Math.max(initialCapacity, 16)];
+    }
+
+    public void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) value;
+    }
+
+    public void writeVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    public void writeZigZagLong(long value) {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    public void writeDouble(double value) {
+        ensureCapacity(8);
+        long bits = Double.doubleToRawLongBits(value);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            buffer[position++] = (byte) (bits >>> shift);
+        }
+    }
+
+    public void writeString(String value) {
+        if (value == null) {
+            writeVarLong(0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length + 1L);
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    public void writeNullableLong(Long value) {
+        if (value == null) {
+            writeByte(0);
+            return;
+        }
+        writeByte(1);
+        writeZigZagLong(value);
+    }
+
+    public void writeNullableDouble(Double value) {
+        if (value == null) {
+            writeByte(0);
+            return;
+        }
+        writeByte(1);
+        writeDouble(value);
+    }
+
+    public void writeEnum(Enum<?> value) {
+        writeVarLong(value == null ? 0 : value.ordinal() + 1L);
+    }
+
+    public int size() {
+        return position;
+    }
+
+    public int capacity() {
+        return buffer.length;
+    }
+
+    /**
+     * Vide le tampon en conservant sa capacité, pour le réutiliser
+     */
+    public void reset() {
+        position = 0;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    private void ensureCapacity(int extra) {
+        if (position + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+        }
+    }
+}
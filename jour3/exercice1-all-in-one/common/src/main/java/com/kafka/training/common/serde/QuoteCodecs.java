@@ -0,0 +1,152 @@
+package com.kafka.training.common.serde;
+
+import com.kafka.training.common.model.EnrichedQuote;
+import com.kafka.training.common.model.ProductPricing;
+import com.kafka.training.common.model.Quote;
+import com.kafka.training.common.model.QuoteAggregate;
+import com.kafka.training.common.model.QuoteStatus;
+
+import java.util.Map;
+
+/**
+ * Schémas binaires (version 1) des modèles de devis
+ */
+public final class QuoteCodecs {
+
+    public static final BinaryCodec<Quote> QUOTE = new BinaryCodec<>() {
+        @Override
+        public int version() {
+            return 1;
+        }
+
+        @Override
+        public void write(Quote quote, BinaryWriter out) {
+            out.writeString(quote.getQuoteId());
+            out.writeString(quote.getCustomerId());
+            out.writeEnum(quote.getStatus());
+            out.writeString(quote.getProductCode());
+            out.writeNullableDouble(quote.getBasePremium());
+            out.writeNullableDouble(quote.getFinalPremium());
+            out.writeNullableLong(quote.getCreatedAt());
+            out.writeNullableLong(quote.getUpdatedAt());
+        }
+
+        @Override
+        public Quote read(BinaryReader in, int version) {
+            Quote quote = new Quote();
+            quote.setQuoteId(in.readString());
+            quote.setCustomerId(in.readString());
+            quote.setStatus(in.readEnum(QuoteStatus.values()));
+            quote.setProductCode(in.readString());
+            quote.setBasePremium(in.readNullableDouble());
+            quote.setFinalPremium(in.readNullableDouble());
+            quote.setCreatedAt(in.readNullableLong());
+            quote.setUpdatedAt(in.readNullableLong());
+            return quote;
+        }
+    };
+
+    public static final BinaryCodec<EnrichedQuote> ENRICHED_QUOTE = new BinaryCodec<>() {
+        @Override
+        public int version() {
+            return 1;
+        }
+
+        @Override
+        public void write(EnrichedQuote quote, BinaryWriter out) {
+            out.writeString(quote.getQuoteId());
+            out.writeString(quote.getCustomerId());
+            out.writeEnum(quote.getStatus());
+            out.writeString(quote.getProductCode());
+            out.writeNullableDouble(quote.getBasePremium());
+            out.writeNullableDouble(quote.getFinalPremium());
+            out.writeNullableLong(quote.getCreatedAt());
+            out.writeNullableLong(quote.getUpdatedAt());
+            out.writeString(quote.getProductName());
+            out.writeNullableDouble(quote.getBasePrice());
+            out.writeNullableDouble(quote.getTaxRate());
+        }
+
+        @Override
+        public EnrichedQuote read(BinaryReader in, int version) {
+            EnrichedQuote quote = new EnrichedQuote();
+            quote.setQuoteId(in.readString());
+            quote.setCustomerId(in.readString());
+            quote.setStatus(in.readEnum(QuoteStatus.values()));
+            quote.setProductCode(in.readString());
+            quote.setBasePremium(in.readNullableDouble());
+            quote.setFinalPremium(in.readNullableDouble());
+            quote.setCreatedAt(in.readNullableLong());
+            quote.setUpdatedAt(in.readNullableLong());
+            quote.setProductName(in.readString());
+            quote.setBasePrice(in.readNullableDouble());
+            quote.setTaxRate(in.readNullableDouble());
+            return quote;
+        }
+    };
+
+    public static final BinaryCodec<ProductPricing> PRODUCT_PRICING = new BinaryCodec<>() {
+        @Override
+        public int version() {
+            return 1;
+        }
+
+        @Override
+        public void write(ProductPricing pricing, BinaryWriter out) {
+            out.writeString(pricing.getProductCode());
+            out.writeString(pricing.getProductName());
+            out.writeNullableDouble(pricing.getBasePrice());
+            out.writeNullableDouble(pricing.getTaxRate());
+        }
+
+        @Override
+        public ProductPricing read(BinaryReader in, int version) {
+            ProductPricing pricing = new ProductPricing();
+            pricing.setProductCode(in.readString());
+            pricing.setProductName(in.readString());
+            pricing.setBasePrice(in.readNullableDouble());
+            pricing.setTaxRate(in.readNullableDouble());
+            return pricing;
+        }
+    };
+
+    public static final BinaryCodec<QuoteAggregate> QUOTE_AGGREGATE = new BinaryCodec<>() {
+        @Override
+        public int version() {
+            return 1;
+        }
+
+        @Override
+        public void write(QuoteAggregate aggregate, BinaryWriter out) {
+            out.writeString(aggregate.getCustomerId());
+            out.writeNullableLong(aggregate.getWindowStart());
+            out.writeNullableLong(aggregate.getWindowEnd());
+            out.writeNullableLong(aggregate.getCount());
+            out.writeNullableDouble(aggregate.getTotalPremium());
+        }
+
+        @Override
+        public QuoteAggregate read(BinaryReader in, int version) {
+            QuoteAggregate aggregate = new QuoteAggregate();
+            aggregate.setCustomerId(in.readString());
+            aggregate.setWindowStart(in.readNullableLong());
+            aggregate.setWindowEnd(in.readNullableLong());
+            aggregate.setCount(in.readNullableLong());
+            aggregate.setTotalPremium(in.readNullableDouble());
+            return aggregate;
+        }
+    };
+
+    /**
+     * Codecs par type, pour TopicSerdes
+     */
+    public static final Map<Class<?>, BinaryCodec<?>> ALL = Map.of(
+            Quote.class, QUOTE,
+            EnrichedQuote.class, ENRICHED_QUOTE,
+            ProductPricing.class, PRODUCT_PRICING,
+            QuoteAggregate.class, QUOTE_AGGREGATE
+    );
+
+    private QuoteCodecs() {
+    }
+}
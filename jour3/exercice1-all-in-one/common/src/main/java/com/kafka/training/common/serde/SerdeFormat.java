@@ -0,0 +1,15 @@
+package com.kafka.training.common.serde;
+
+import org.apache.kafka.common.serialization.Serde;
+
+/**
+ * Format de sérialisation d'un topic
+ */
+public enum SerdeFormat {
+    JSON,
+    BINARY;
+
+    public <T> Serde<T> serde(Class<T> targetType, BinaryCodec<T> codec) {
+        return this == BINARY ? new BinarySerde<>(targetType, codec) : new JsonSerde<>(targetType);
+    }
+}
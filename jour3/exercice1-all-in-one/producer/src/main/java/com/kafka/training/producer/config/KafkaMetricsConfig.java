@@ -1,5 +1,6 @@
 package com.kafka.training.producer.config;
 
+import com.kafka.training.common.metrics.ProducerSendMetrics;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -21,4 +22,12 @@ public class KafkaMetricsConfig {
 
         return listener;
     }
+
+    /**
+     * Latence send → ack, envois en cours, débit par partition et erreurs par type
+     */
+    @Bean
+    public ProducerSendMetrics producerSendMetrics(MeterRegistry meterRegistry) {
+        return new ProducerSendMetrics(meterRegistry);
+    }
 }
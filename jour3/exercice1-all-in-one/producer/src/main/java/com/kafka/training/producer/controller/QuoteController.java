@@ -3,49 +3,77 @@ package com.kafka.training.producer.controller;
 import com.kafka.training.common.model.Quote;
 import com.kafka.training.common.model.QuoteStatus;
 import com.kafka.training.common.model.ProductPricing;
+import com.kafka.training.producer.model.BulkIngestionResult;
+import com.kafka.training.producer.service.QuoteBulkIngestionService;
+import com.kafka.training.producer.service.AdmissionRejectedException;
 import com.kafka.training.producer.service.QuoteProducerService;
+import org.apache.kafka.common.KafkaException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api")
 public class QuoteController {
 
+    private static final Logger log = LoggerFactory.getLogger(QuoteController.class);
+
+    private static final String NDJSON = "application/x-ndjson";
+
     private final QuoteProducerService producerService;
+    private final QuoteBulkIngestionService bulkIngestionService;
     private final Random random = new Random();
 
-    public QuoteController(QuoteProducerService producerService) {
+    public QuoteController(QuoteProducerService producerService,
+                           QuoteBulkIngestionService bulkIngestionService) {
         this.producerService = producerService;
+        this.bulkIngestionService = bulkIngestionService;
     }
 
     private static final List<String> CUSTOMER_IDS = Arrays.asList("C001", "C002", "C003", "C004", "C005");
     private static final List<String> PRODUCT_CODES = Arrays.asList("AUTO", "HOME", "HEALTH", "LIFE", "TRAVEL");
 
+    /**
+     * Les endpoints unitaires passent par la file d'admission et répondent à l'ack Kafka :
+     * le thread Tomcat est libéré pendant l'envoi (réponse asynchrone), et un producer
+     * saturé répond 429 + Retry-After au lieu de bloquer jusqu'à max.block.ms.
+     */
     @PostMapping("/quotes")
-    public ResponseEntity<String> createQuote(@RequestBody Quote quote) {
-        if (quote.getQuoteId() == null) {
-            quote.setQuoteId("Q-" + UUID.randomUUID().toString().substring(0, 8));
-        }
-        if (quote.getCreatedAt() == null) {
-            quote.setCreatedAt(System.currentTimeMillis());
-        }
-        if (quote.getUpdatedAt() == null) {
-            quote.setUpdatedAt(System.currentTimeMillis());
-        }
-        if (quote.getStatus() == null) {
-            quote.setStatus(QuoteStatus.DRAFT);
+    public CompletableFuture<ResponseEntity<String>> createQuote(@RequestBody Quote quote) {
+        producerService.applyDefaults(quote);
+        return producerService.submitQuote(quote)
+                .thenApply(result -> acknowledged("Quote created: " + quote.getQuoteId(), result));
+    }
+
+    /**
+     * Envoi en masse : tableau JSON ou NDJSON (un devis par ligne), lu en streaming.
+     * Répond une fois tous les devis acquittés, avec les compteurs agrégés.
+     * 200 si tout est acquitté, 207 sinon, 400 si le corps est illisible.
+     */
+    @PostMapping(value = "/quotes/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON})
+    public ResponseEntity<BulkIngestionResult> createQuotes(InputStream body) {
+        BulkIngestionResult result = bulkIngestionService.ingest(body);
+        if (result.getParseError() != null) {
+            return ResponseEntity.badRequest().body(result);
         }
-        producerService.sendQuote(quote);
-        return ResponseEntity.ok("Quote created: " + quote.getQuoteId());
+        HttpStatus status = result.isComplete() ? HttpStatus.OK : HttpStatus.MULTI_STATUS;
+        return ResponseEntity.status(status).body(result);
     }
 
     @PostMapping("/quotes/{quoteId}/validate")
-    public ResponseEntity<String> validateQuote(@PathVariable String quoteId) {
+    public CompletableFuture<ResponseEntity<String>> validateQuote(@PathVariable String quoteId) {
         long now = System.currentTimeMillis();
         Quote quote = new Quote(
                 quoteId,
@@ -57,12 +85,12 @@ public class QuoteController {
                 now - 3600000,
                 now
         );
-        producerService.sendQuote(quote);
-        return ResponseEntity.ok("Quote validated: " + quoteId);
+        return producerService.submitQuote(quote)
+                .thenApply(result -> acknowledged("Quote validated: " + quoteId, result));
     }
 
     @PostMapping("/quotes/{quoteId}/cancel")
-    public ResponseEntity<String> cancelQuote(@PathVariable String quoteId) {
+    public CompletableFuture<ResponseEntity<String>> cancelQuote(@PathVariable String quoteId) {
         long now = System.currentTimeMillis();
         Quote quote = new Quote(
                 quoteId,
@@ -74,8 +102,8 @@ public class QuoteController {
                 now - 3600000,
                 now
         );
-        producerService.sendQuote(quote);
-        return ResponseEntity.ok("Quote cancelled: " + quoteId);
+        return producerService.submitQuote(quote)
+                .thenApply(result -> acknowledged("Quote cancelled: " + quoteId, result));
     }
 
     @PostMapping("/quotes/generate")
@@ -120,9 +148,9 @@ public class QuoteController {
     }
 
     @PostMapping("/pricing")
-    public ResponseEntity<String> sendProductPricing(@RequestBody ProductPricing pricing) {
-        producerService.sendProductPricing(pricing);
-        return ResponseEntity.ok("Product pricing sent");
+    public CompletableFuture<ResponseEntity<String>> sendProductPricing(@RequestBody ProductPricing pricing) {
+        return producerService.submitProductPricing(pricing)
+                .thenApply(result -> acknowledged("Product pricing sent", result));
     }
 
     @PostMapping("/pricing/init")
@@ -143,4 +171,28 @@ public class QuoteController {
 
         return ResponseEntity.ok("Product pricing initialized");
     }
+
+    /**
+     * Producer saturé (file d'admission pleine ou trop d'octets en vol)
+     */
+    @ExceptionHandler(AdmissionRejectedException.class)
+    public ResponseEntity<String> handleAdmissionRejected(AdmissionRejectedException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(e.getRetryAfterSeconds()))
+                .body(e.getMessage());
+    }
+
+    /**
+     * Envoi refusé ou non acquitté par Kafka (timeout, broker indisponible...)
+     */
+    @ExceptionHandler({KafkaException.class, org.springframework.kafka.KafkaException.class})
+    public ResponseEntity<String> handleSendFailure(Exception e) {
+        log.warn("Send failed: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Send failed: " + e.getMessage());
+    }
+
+    private static ResponseEntity<String> acknowledged(String message, SendResult<String, Object> result) {
+        return ResponseEntity.ok(String.format("%s (partition %d, offset %d)", message,
+                result.getRecordMetadata().partition(), result.getRecordMetadata().offset()));
+    }
 }
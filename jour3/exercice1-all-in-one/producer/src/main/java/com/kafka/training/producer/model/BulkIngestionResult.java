@@ -0,0 +1,103 @@
+package com.kafka.training.producer.model;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Résultat agrégé d'un envoi en masse : compteurs d'acks, répartition par partition
+ * et premières erreurs rencontrées (liste bornée)
+ */
+public class BulkIngestionResult {
+
+    private long received;
+    private long acknowledged;
+    private long failed;
+    private long pending;
+    private long durationMs;
+    private double recordsPerSecond;
+    private Map<Integer, Long> partitions;
+    private List<String> errors;
+    private String parseError;
+
+    public BulkIngestionResult() {
+    }
+
+    public long getReceived() {
+        return received;
+    }
+
+    public void setReceived(long received) {
+        this.received = received;
+    }
+
+    public long getAcknowledged() {
+        return acknowledged;
+    }
+
+    public void setAcknowledged(long acknowledged) {
+        this.acknowledged = acknowledged;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public long getPending() {
+        return pending;
+    }
+
+    public void setPending(long pending) {
+        this.pending = pending;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    public double getRecordsPerSecond() {
+        return recordsPerSecond;
+    }
+
+    public void setRecordsPerSecond(double recordsPerSecond) {
+        this.recordsPerSecond = recordsPerSecond;
+    }
+
+    public Map<Integer, Long> getPartitions() {
+        return partitions;
+    }
+
+    public void setPartitions(Map<Integer, Long> partitions) {
+        this.partitions = partitions;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+
+    public String getParseError() {
+        return parseError;
+    }
+
+    public void setParseError(String parseError) {
+        this.parseError = parseError;
+    }
+
+    /**
+     * Tous les devis reçus ont été acquittés par Kafka
+     */
+    public boolean isComplete() {
+        return parseError == null && failed == 0 && pending == 0;
+    }
+}
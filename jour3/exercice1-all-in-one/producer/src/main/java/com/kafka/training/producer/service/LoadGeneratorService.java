@@ -0,0 +1,143 @@
+package com.kafka.training.producer.service;
+
+import com.kafka.training.common.loadgen.LatencyHistogram;
+import com.kafka.training.common.loadgen.LoadProfile;
+import com.kafka.training.common.loadgen.LoadReport;
+import com.kafka.training.common.loadgen.OpenLoopLoadGenerator;
+import com.kafka.training.common.model.Quote;
+import com.kafka.training.common.model.QuoteStatus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Campagnes de charge en boucle ouverte sur devis-events
+ *
+ * Une seule campagne à la fois. Les percentiles de la campagne en cours (ou de la
+ * dernière) sont exposés dans Prometheus :
+ * - loadgen_latency_seconds{type="response|service",quantile="0.5|0.99|0.999"}
+ * - loadgen_records{result="sent|acknowledged|failed"}, loadgen_in_flight, loadgen_rate_target
+ */
+@Service
+public class LoadGeneratorService {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadGeneratorService.class);
+
+    private static final double[] QUANTILES = {0.5, 0.99, 0.999};
+    private static final List<String> CUSTOMER_IDS = List.of("C001", "C002", "C003", "C004", "C005");
+    private static final List<String> PRODUCT_CODES = List.of("AUTO", "HOME", "HEALTH", "LIFE", "TRAVEL");
+    private static final QuoteStatus[] STATUSES = {
+            QuoteStatus.VALIDATED, QuoteStatus.VALIDATED, QuoteStatus.VALIDATED, QuoteStatus.DRAFT, QuoteStatus.CANCELLED
+    };
+
+    private final QuoteProducerService producerService;
+    private final LatencyHistogram responseTime = new LatencyHistogram();
+    private final LatencyHistogram serviceTime = new LatencyHistogram();
+
+    private volatile OpenLoopLoadGenerator generator;
+
+    public LoadGeneratorService(QuoteProducerService producerService, MeterRegistry meterRegistry) {
+        this.producerService = producerService;
+        registerLatencyGauges(meterRegistry, "response", responseTime);
+        registerLatencyGauges(meterRegistry, "service", serviceTime);
+        registerRecordGauge(meterRegistry, "sent", OpenLoopLoadGenerator::getSent);
+        registerRecordGauge(meterRegistry, "acknowledged", OpenLoopLoadGenerator::getAcknowledged);
+        registerRecordGauge(meterRegistry, "failed", OpenLoopLoadGenerator::getFailed);
+        Gauge.builder("loadgen.in.flight", this, s -> s.current(OpenLoopLoadGenerator::getInFlight))
+                .description("Load generator sends awaiting an ack")
+                .register(meterRegistry);
+        Gauge.builder("loadgen.rate.target", this,
+                        s -> s.current(g -> g.isRunning() ? g.getProfile().getRatePerSecond() : 0))
+                .description("Target send rate of the running load test (records/s)")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Démarre une campagne dans un thread dédié
+     *
+     * @throws IllegalStateException    si une campagne est déjà en cours
+     * @throws IllegalArgumentException si le profil est invalide
+     */
+    public synchronized LoadReport start(LoadProfile profile) {
+        if (generator != null && generator.isRunning()) {
+            throw new IllegalStateException("A load test is already running");
+        }
+        profile.validate();
+        responseTime.reset();
+        serviceTime.reset();
+
+        OpenLoopLoadGenerator next = new OpenLoopLoadGenerator(profile, this::sendQuote, responseTime, serviceTime);
+        Thread thread = new Thread(next, "load-generator");
+        thread.setDaemon(true);
+        generator = next;
+        thread.start();
+
+        log.info("Load test started: {} records/s for {}s over {} keys ({})",
+                profile.getRatePerSecond(), profile.getDurationSeconds(),
+                profile.getKeyCount(), profile.getDistribution());
+        return next.report();
+    }
+
+    public synchronized Optional<LoadReport> stop() {
+        if (generator == null) {
+            return Optional.empty();
+        }
+        generator.stop();
+        log.info("Load test stopped");
+        return Optional.of(generator.report());
+    }
+
+    public Optional<LoadReport> report() {
+        OpenLoopLoadGenerator current = generator;
+        return current != null ? Optional.of(current.report()) : Optional.empty();
+    }
+
+    /**
+     * La clé tirée identifie le devis : une clé chaude = un devis mis à jour très souvent
+     */
+    private CompletableFuture<?> sendQuote(int key, long sequence) {
+        long now = System.currentTimeMillis();
+        Quote quote = new Quote(
+                String.format("Q-L%07d", key),
+                CUSTOMER_IDS.get(key % CUSTOMER_IDS.size()),
+                STATUSES[(int) (sequence % STATUSES.length)],
+                PRODUCT_CODES.get(key % PRODUCT_CODES.size()),
+                100.0 + key % 500,
+                null,
+                now,
+                now
+        );
+        return producerService.sendQuoteAsync(quote);
+    }
+
+    private double current(ToDoubleFunction<OpenLoopLoadGenerator> value) {
+        OpenLoopLoadGenerator current = generator;
+        return current != null ? value.applyAsDouble(current) : 0;
+    }
+
+    private void registerRecordGauge(MeterRegistry registry, String result,
+                                     ToDoubleFunction<OpenLoopLoadGenerator> value) {
+        Gauge.builder("loadgen.records", this, s -> s.current(value))
+                .tag("result", result)
+                .description("Records of the current load test")
+                .register(registry);
+    }
+
+    private static void registerLatencyGauges(MeterRegistry registry, String type, LatencyHistogram histogram) {
+        for (double quantile : QUANTILES) {
+            Gauge.builder("loadgen.latency", histogram, h -> h.percentileMicros(quantile) / 1_000_000.0)
+                    .tag("type", type)
+                    .tag("quantile", Double.toString(quantile))
+                    .baseUnit("seconds")
+                    .description("Load test send-to-ack latency (response = from scheduled time)")
+                    .register(registry);
+        }
+    }
+}
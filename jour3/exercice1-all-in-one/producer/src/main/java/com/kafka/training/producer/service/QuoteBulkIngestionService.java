@@ -0,0 +1,183 @@
+package com.kafka.training.producer.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.kafka.training.common.model.Quote;
+import com.kafka.training.producer.model.BulkIngestionResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ingestion en masse de devis (tableau JSON ou NDJSON)
+ *
+ * Le corps de la requête est lu au fil de l'eau : chaque devis est envoyé dès
+ * qu'il est parsé, sans attendre l'acquittement du précédent. Le nombre d'envois
+ * non acquittés est borné par quotes.bulk.max-in-flight (sémaphore) : la mémoire
+ * reste constante quelle que soit la taille du lot, et la lecture ralentit
+ * d'elle-même si Kafka n'acquitte pas assez vite.
+ */
+@Service
+public class QuoteBulkIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(QuoteBulkIngestionService.class);
+
+    private final QuoteProducerService producerService;
+    private final ObjectReader quoteReader;
+    private final int maxInFlight;
+    private final int maxErrors;
+    private final long ackTimeoutMs;
+
+    public QuoteBulkIngestionService(QuoteProducerService producerService,
+                                     ObjectMapper objectMapper,
+                                     @Value("${quotes.bulk.max-in-flight:10000}") int maxInFlight,
+                                     @Value("${quotes.bulk.max-errors:10}") int maxErrors,
+                                     @Value("${quotes.bulk.ack-timeout-ms:60000}") long ackTimeoutMs) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("quotes.bulk.max-in-flight must be positive");
+        }
+        this.producerService = producerService;
+        this.quoteReader = objectMapper.readerFor(Quote.class);
+        this.maxInFlight = maxInFlight;
+        this.maxErrors = maxErrors;
+        this.ackTimeoutMs = ackTimeoutMs;
+    }
+
+    /**
+     * Envoie tous les devis du flux puis attend leurs acquittements
+     * (au plus quotes.bulk.ack-timeout-ms après la fin de la lecture).
+     *
+     * Le flux peut être un tableau JSON ou une suite de devis séparés par des
+     * retours à la ligne. Une erreur de parsing arrête la lecture : les devis
+     * déjà envoyés sont tout de même comptabilisés.
+     */
+    public BulkIngestionResult ingest(InputStream body) {
+        long start = System.nanoTime();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        AckTracker tracker = new AckTracker(maxErrors);
+        long received = 0;
+        String parseError = null;
+
+        try (MappingIterator<Quote> quotes = quoteReader.readValues(body)) {
+            while (quotes.hasNextValue()) {
+                Quote quote = quotes.nextValue();
+                received++;
+                if (quote == null) {
+                    tracker.failure("record #" + received + ": null quote");
+                    continue;
+                }
+                inFlight.acquire();
+                send(producerService.applyDefaults(quote), tracker, inFlight);
+            }
+        } catch (IOException e) {
+            parseError = "record #" + (received + 1) + ": " + e.getMessage();
+            log.warn("Bulk ingestion stopped on unreadable input after {} quotes: {}", received, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            parseError = "interrupted after " + received + " quotes";
+        }
+
+        boolean drained = awaitAcks(inFlight);
+        BulkIngestionResult result = tracker.toResult(received, start);
+        result.setParseError(parseError);
+        if (!drained) {
+            log.warn("Bulk ingestion: {} quotes still unacknowledged after {} ms", result.getPending(), ackTimeoutMs);
+        }
+        log.info("Bulk ingestion done: received={}, acknowledged={}, failed={}, pending={}, {} ms",
+                result.getReceived(), result.getAcknowledged(), result.getFailed(),
+                result.getPending(), result.getDurationMs());
+        return result;
+    }
+
+    private void send(Quote quote, AckTracker tracker, Semaphore inFlight) {
+        try {
+            producerService.sendQuoteAsync(quote).whenComplete((result, ex) -> {
+                tracker.complete(quote.getQuoteId(), result, ex);
+                inFlight.release();
+            });
+        } catch (RuntimeException e) {
+            // Erreur synchrone (sérialisation, buffer plein au-delà de max.block.ms...)
+            tracker.complete(quote.getQuoteId(), null, e);
+            inFlight.release();
+        }
+    }
+
+    private boolean awaitAcks(Semaphore inFlight) {
+        try {
+            return inFlight.tryAcquire(maxInFlight, ackTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Agrège les acquittements (appelé depuis le thread I/O du producer : pas de verrou)
+     */
+    private static class AckTracker {
+
+        private final int maxErrors;
+        private final LongAdder acknowledged = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final Map<Integer, LongAdder> partitions = new ConcurrentHashMap<>();
+        private final Queue<String> errors = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger errorCount = new AtomicInteger();
+
+        AckTracker(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        void complete(String quoteId, SendResult<String, Object> result, Throwable ex) {
+            if (ex == null) {
+                acknowledged.increment();
+                partitions.computeIfAbsent(result.getRecordMetadata().partition(), p -> new LongAdder())
+                        .increment();
+            } else {
+                failure(quoteId + ": " + ex.getMessage());
+            }
+        }
+
+        void failure(String error) {
+            failed.increment();
+            if (errorCount.getAndIncrement() < maxErrors) {
+                errors.add(error);
+            }
+        }
+
+        BulkIngestionResult toResult(long received, long startNanos) {
+            long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            long acked = acknowledged.sum();
+            long failures = failed.sum();
+
+            Map<Integer, Long> byPartition = new TreeMap<>();
+            partitions.forEach((partition, count) -> byPartition.put(partition, count.sum()));
+
+            BulkIngestionResult result = new BulkIngestionResult();
+            result.setReceived(received);
+            result.setAcknowledged(acked);
+            result.setFailed(failures);
+            result.setPending(Math.max(0, received - acked - failures));
+            result.setDurationMs(durationMs);
+            result.setRecordsPerSecond(durationMs > 0 ? received * 1000.0 / durationMs : received);
+            result.setPartitions(byPartition);
+            result.setErrors(new ArrayList<>(errors));
+            return result;
+        }
+    }
+}
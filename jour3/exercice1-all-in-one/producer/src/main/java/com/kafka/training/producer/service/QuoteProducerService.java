@@ -1,6 +1,8 @@
 package com.kafka.training.producer.service;
 
+import com.kafka.training.common.metrics.ProducerSendMetrics;
 import com.kafka.training.common.model.Quote;
+import com.kafka.training.common.model.QuoteStatus;
 import com.kafka.training.common.model.ProductPricing;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -8,6 +10,7 @@ import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
 @Service
@@ -15,42 +18,100 @@ public class QuoteProducerService {
 
     private static final Logger log = LoggerFactory.getLogger(QuoteProducerService.class);
     private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final ProducerSendMetrics sendMetrics;
+    private final SendAdmissionQueue admissionQueue;
 
-    public QuoteProducerService(KafkaTemplate<String, Object> kafkaTemplate) {
+    public QuoteProducerService(KafkaTemplate<String, Object> kafkaTemplate,
+                                ProducerSendMetrics sendMetrics,
+                                SendAdmissionQueue admissionQueue) {
         this.kafkaTemplate = kafkaTemplate;
+        this.sendMetrics = sendMetrics;
+        this.admissionQueue = admissionQueue;
     }
 
     private static final String QUOTE_EVENTS_TOPIC = "devis-events";
     private static final String PRODUCT_PRICING_TOPIC = "product-pricing";
 
+    /**
+     * Complète les champs absents d'un devis reçu par l'API (id, dates, statut DRAFT)
+     */
+    public Quote applyDefaults(Quote quote) {
+        long now = System.currentTimeMillis();
+        if (quote.getQuoteId() == null) {
+            quote.setQuoteId("Q-" + UUID.randomUUID().toString().substring(0, 8));
+        }
+        if (quote.getCreatedAt() == null) {
+            quote.setCreatedAt(now);
+        }
+        if (quote.getUpdatedAt() == null) {
+            quote.setUpdatedAt(now);
+        }
+        if (quote.getStatus() == null) {
+            quote.setStatus(QuoteStatus.DRAFT);
+        }
+        return quote;
+    }
+
     public void sendQuote(Quote quote) {
-        CompletableFuture<SendResult<String, Object>> future =
-                kafkaTemplate.send(QUOTE_EVENTS_TOPIC, quote.getQuoteId(), quote);
+        sendQuoteAsync(quote).whenComplete((result, ex) -> logQuoteAck(quote, result, ex));
+    }
 
-        future.whenComplete((result, ex) -> {
-            if (ex == null) {
-                log.info("Quote sent successfully: quoteId={}, status={}, customerId={}, partition={}",
-                        quote.getQuoteId(), quote.getStatus(), quote.getCustomerId(),
-                        result.getRecordMetadata().partition());
-            } else {
-                log.error("Failed to send quote: {}", ex.getMessage());
-            }
-        });
+    /**
+     * Envoi via la file d'admission : ne bloque pas le thread appelant.
+     * Le future se termine à l'ack, ou en AdmissionRejectedException si le producer est saturé.
+     */
+    public CompletableFuture<SendResult<String, Object>> submitQuote(Quote quote) {
+        return admissionQueue.submit(() -> sendQuoteAsync(quote))
+                .whenComplete((result, ex) -> logQuoteAck(quote, result, ex));
+    }
+
+    /**
+     * Envoi sans log par devis : l'appelant traite lui-même l'acquittement
+     */
+    public CompletableFuture<SendResult<String, Object>> sendQuoteAsync(Quote quote) {
+        return sendMetrics.track(QUOTE_EVENTS_TOPIC,
+                () -> kafkaTemplate.send(QUOTE_EVENTS_TOPIC, quote.getQuoteId(), quote));
     }
 
     public void sendProductPricing(ProductPricing pricing) {
+        sendProductPricingAsync(pricing).whenComplete((result, ex) -> logPricingAck(pricing, result, ex));
+    }
+
+    /**
+     * Comme submitQuote, pour le référentiel de prix
+     */
+    public CompletableFuture<SendResult<String, Object>> submitProductPricing(ProductPricing pricing) {
+        return admissionQueue.submit(() -> sendProductPricingAsync(pricing))
+                .whenComplete((result, ex) -> logPricingAck(pricing, result, ex));
+    }
+
+    private CompletableFuture<SendResult<String, Object>> sendProductPricingAsync(ProductPricing pricing) {
         // Utilise productCode comme clé pour garantir le compactage
-        CompletableFuture<SendResult<String, Object>> future =
-                kafkaTemplate.send(PRODUCT_PRICING_TOPIC, pricing.getProductCode(), pricing);
-
-        future.whenComplete((result, ex) -> {
-            if (ex == null) {
-                log.info("Product pricing sent: productCode={}, basePrice={}, partition={}",
-                        pricing.getProductCode(), pricing.getBasePrice(),
-                        result.getRecordMetadata().partition());
-            } else {
-                log.error("Failed to send product pricing: {}", ex.getMessage());
-            }
-        });
+        return sendMetrics.track(PRODUCT_PRICING_TOPIC,
+                () -> kafkaTemplate.send(PRODUCT_PRICING_TOPIC, pricing.getProductCode(), pricing));
+    }
+
+    private void logQuoteAck(Quote quote, SendResult<String, Object> result, Throwable ex) {
+        if (ex == null) {
+            log.info("Quote sent successfully: quoteId={}, status={}, customerId={}, partition={}",
+                    quote.getQuoteId(), quote.getStatus(), quote.getCustomerId(),
+                    result.getRecordMetadata().partition());
+        } else if (ex instanceof AdmissionRejectedException) {
+            log.debug("Quote rejected by admission queue: quoteId={}", quote.getQuoteId());
+        } else {
+            log.error("Failed to send quote: {}", ex.getMessage());
+        }
+    }
+
+    private void logPricingAck(ProductPricing pricing, SendResult<String, Object> result, Throwable ex) {
+        if (ex == null) {
+            log.info("Product pricing sent: productCode={}, basePrice={}, partition={}",
+                    pricing.getProductCode(), pricing.getBasePrice(),
+                    result.getRecordMetadata().partition());
+        } else if (ex instanceof AdmissionRejectedException) {
+            log.debug("Product pricing rejected by admission queue: productCode={}", pricing.getProductCode());
+        } else {
+            log.error("Failed to send product pricing: {}", ex.getMessage());
+        }
     }
 }
@@ -0,0 +1,95 @@
+package com.kafka.training.queryapi.config;
+
+import com.kafka.training.common.model.EnrichedQuote;
+import com.kafka.training.common.serde.JsonSerde;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@EnableKafka
+@Configuration
+public class KafkaConsumerConfig {
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Value("${spring.kafka.consumer.group-id}")
+    private String groupId;
+
+    @Value("${quotes.index.topic:all-quotes}")
+    private String quotesTopic;
+
+    @Bean
+    public ConsumerFactory<String, EnrichedQuote> enrichedQuoteConsumerFactory() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+
+        // Relire all-quotes depuis le début au premier démarrage pour construire les index
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+
+        return new DefaultKafkaConsumerFactory<>(
+                config,
+                new StringDeserializer(),
+                new JsonSerde<>(EnrichedQuote.class).deserializer()
+        );
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, EnrichedQuote> enrichedQuoteListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, EnrichedQuote> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(enrichedQuoteConsumerFactory());
+        return factory;
+    }
+
+    /**
+     * Consumer du near-cache : sans group.id, donc sans rebalancing ni commit d'offsets.
+     * Chaque instance s'assigne toutes les partitions (quoteCachePartitions) et, faute
+     * d'offset commité, démarre à la fin du topic.
+     */
+    @Bean
+    public ConsumerFactory<String, EnrichedQuote> quoteCacheConsumerFactory() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+
+        return new DefaultKafkaConsumerFactory<>(
+                config,
+                new StringDeserializer(),
+                new JsonSerde<>(EnrichedQuote.class).deserializer()
+        );
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, EnrichedQuote> quoteCacheListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, EnrichedQuote> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(quoteCacheConsumerFactory());
+        return factory;
+    }
+
+    /**
+     * Numéros de toutes les partitions de all-quotes, lus au démarrage
+     * (le topic est créé par l'application streams, à lancer avant)
+     */
+    @Bean
+    public String[] quoteCachePartitions(KafkaAdmin kafkaAdmin) {
+        TopicDescription topic = kafkaAdmin.describeTopics(quotesTopic).get(quotesTopic);
+        return topic.partitions().stream()
+                .map(partition -> String.valueOf(partition.partition()))
+                .toArray(String[]::new);
+    }
+}
@@ -1,9 +1,14 @@
 package com.kafka.training.queryapi.controller;
 
 import com.kafka.training.common.model.EnrichedQuote;
+import com.kafka.training.queryapi.model.QuotePage;
+import com.kafka.training.queryapi.service.QuoteIndexService;
 import com.kafka.training.queryapi.service.QuoteQueryService;
+import com.kafka.training.queryapi.service.QuoteStatisticsService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -12,10 +17,19 @@ import java.util.Map;
 @RequestMapping("/api/quotes")
 public class QuoteQueryController {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String NDJSON = "application/x-ndjson";
+
     private final QuoteQueryService queryService;
+    private final QuoteIndexService indexService;
+    private final QuoteStatisticsService statisticsService;
 
-    public QuoteQueryController(QuoteQueryService queryService) {
+    public QuoteQueryController(QuoteQueryService queryService,
+                                QuoteIndexService indexService,
+                                QuoteStatisticsService statisticsService) {
         this.queryService = queryService;
+        this.indexService = indexService;
+        this.statisticsService = statisticsService;
     }
 
     /**
@@ -30,14 +44,41 @@ public class QuoteQueryController {
     }
 
     /**
-     * Récupère tous les devis (limité à 100)
+     * Récupère une page de devis, triés par date de création (limité à 100 par défaut)
      * GET /api/quotes?limit=50
+     * GET /api/quotes?limit=50&cursor={X-Next-Cursor de la page précédente}
+     *
+     * Le header X-Next-Cursor est absent sur la dernière page.
      */
     @GetMapping
     public ResponseEntity<List<EnrichedQuote>> getAllQuotes(
-            @RequestParam(defaultValue = "100") int limit) {
-        List<EnrichedQuote> quotes = queryService.getAllQuotes(limit);
-        return ResponseEntity.ok(quotes);
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(required = false) String cursor) {
+        if (limit <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            QuotePage page = queryService.getQuotesPage(cursor, limit);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+            }
+            return response.body(page.getQuotes());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Exporte tous les devis en NDJSON, écrits au fil de l'eau (mémoire constante)
+     * GET /api/quotes/export
+     */
+    @GetMapping(value = "/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportQuotes() {
+        StreamingResponseBody body = queryService::exportQuotes;
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
     }
 
     /**
@@ -70,6 +111,26 @@ public class QuoteQueryController {
         return ResponseEntity.ok(stats);
     }
 
+    /**
+     * Reconstruit les index client / produit depuis les devis présents dans Redis (SCAN)
+     * POST /api/quotes/index/rebuild
+     */
+    @PostMapping("/index/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildIndexes() {
+        long indexed = indexService.rebuild();
+        return ResponseEntity.ok(Map.of("indexed", indexed));
+    }
+
+    /**
+     * Recalcule les statistiques depuis les devis présents dans Redis (SCAN)
+     * POST /api/quotes/stats/rebuild
+     */
+    @PostMapping("/stats/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildStatistics() {
+        long recorded = statisticsService.rebuild();
+        return ResponseEntity.ok(Map.of("recorded", recorded));
+    }
+
     /**
      * Health check
      * GET /api/quotes/health
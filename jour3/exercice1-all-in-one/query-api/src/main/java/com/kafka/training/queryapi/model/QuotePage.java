@@ -0,0 +1,34 @@
+package com.kafka.training.queryapi.model;
+
+import com.kafka.training.common.model.EnrichedQuote;
+
+import java.util.List;
+
+public class QuotePage {
+    private List<EnrichedQuote> quotes;
+    private String nextCursor;
+
+    public QuotePage() {
+    }
+
+    public QuotePage(List<EnrichedQuote> quotes, String nextCursor) {
+        this.quotes = quotes;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<EnrichedQuote> getQuotes() {
+        return quotes;
+    }
+
+    public void setQuotes(List<EnrichedQuote> quotes) {
+        this.quotes = quotes;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
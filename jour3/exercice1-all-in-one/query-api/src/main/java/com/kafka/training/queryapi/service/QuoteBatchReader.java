@@ -0,0 +1,147 @@
+package com.kafka.training.queryapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.kafka.training.common.model.EnrichedQuote;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Lecture groupée des devis dans Redis
+ *
+ * Les clés sont découpées en lots de quotes.read.batch-size : un seul MGET
+ * s'il n'y a qu'un lot, sinon tous les MGET partent dans un même pipeline.
+ * Le coût réseau est donc d'un aller-retour par requête, et non un par devis.
+ * Au-delà de quotes.read.parallel-threshold valeurs, le parsing JSON est parallélisé.
+ */
+@Component
+public class QuoteBatchReader {
+
+    private static final Logger log = LoggerFactory.getLogger(QuoteBatchReader.class);
+
+    public static final String QUOTE_KEY_PATTERN = "Q-*";
+
+    private final RedisTemplate<String, String> stringRedisTemplate;
+    private final ObjectReader quoteReader;
+    private final int batchSize;
+    private final int parallelThreshold;
+
+    public QuoteBatchReader(RedisTemplate<String, String> stringRedisTemplate,
+                            ObjectMapper objectMapper,
+                            @Value("${quotes.read.batch-size:500}") int batchSize,
+                            @Value("${quotes.read.parallel-threshold:256}") int parallelThreshold) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("quotes.read.batch-size must be positive");
+        }
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.quoteReader = objectMapper.readerFor(EnrichedQuote.class);
+        this.batchSize = batchSize;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Lit les devis des clés données, dans l'ordre des clés.
+     * Les clés absentes ou illisibles sont ignorées.
+     */
+    public List<EnrichedQuote> read(List<String> keys) {
+        if (keys.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<String> values = fetch(keys);
+
+        IntStream indexes = IntStream.range(0, values.size());
+        if (values.size() >= parallelThreshold) {
+            indexes = indexes.parallel();
+        }
+        return indexes
+                .mapToObj(i -> parse(keys.get(i), values.get(i)))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Parcourt tous les devis présents dans Redis avec SCAN (non bloquant, contrairement à KEYS),
+     * par lots de quotes.read.batch-size clés.
+     *
+     * @return le nombre de devis lus
+     */
+    public long forEachBatch(Consumer<List<EnrichedQuote>> action) {
+        long count = 0;
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(QUOTE_KEY_PATTERN)
+                .count(batchSize)
+                .build();
+
+        try (Cursor<String> cursor = stringRedisTemplate.scan(options)) {
+            List<String> batch = new ArrayList<>(batchSize);
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+                if (batch.size() == batchSize || !cursor.hasNext()) {
+                    List<EnrichedQuote> quotes = read(batch);
+                    action.accept(quotes);
+                    count += quotes.size();
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+        }
+        return count;
+    }
+
+    private List<String> fetch(List<String> keys) {
+        if (keys.size() <= batchSize) {
+            List<String> values = stringRedisTemplate.opsForValue().multiGet(keys);
+            return values != null ? values : Collections.nCopies(keys.size(), null);
+        }
+
+        List<List<String>> chunks = new ArrayList<>();
+        for (int start = 0; start < keys.size(); start += batchSize) {
+            chunks.add(keys.subList(start, Math.min(start + batchSize, keys.size())));
+        }
+
+        List<Object> replies = stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                chunks.forEach(chunk -> ops.opsForValue().multiGet(chunk));
+                return null;
+            }
+        });
+
+        List<String> values = new ArrayList<>(keys.size());
+        for (int i = 0; i < chunks.size(); i++) {
+            Object reply = i < replies.size() ? replies.get(i) : null;
+            if (reply instanceof List<?> chunkValues) {
+                chunkValues.forEach(value -> values.add((String) value));
+            } else {
+                values.addAll(Collections.nCopies(chunks.get(i).size(), null));
+            }
+        }
+        return values;
+    }
+
+    private EnrichedQuote parse(String key, String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return quoteReader.readValue(json);
+        } catch (Exception e) {
+            log.error("Error parsing quote {}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+}
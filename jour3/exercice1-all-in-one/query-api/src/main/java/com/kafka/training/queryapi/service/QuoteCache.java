@@ -0,0 +1,90 @@
+package com.kafka.training.queryapi.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.kafka.training.common.model.EnrichedQuote;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Near-cache en mémoire des devis désérialisés, devant Redis
+ *
+ * - borné en taille (quotes.cache.max-size) et en durée (quotes.cache.ttl)
+ * - tenu à jour par QuoteCacheListener depuis all-quotes
+ * - métriques cache.gets{result=hit|miss}, cache.evictions, cache.size (tag cache=quotes)
+ *
+ * QuoteCacheListener voit une mise à jour avant que Kafka Connect ne l'ait écrite
+ * dans Redis : la dernière version reçue de chaque devis est conservée (bornée en
+ * taille et en durée comme le cache), et un chargement depuis Redis plus ancien
+ * qu'elle est remplacé par cette version au lieu d'être mis en cache.
+ */
+@Component
+public class QuoteCache {
+
+    public static final String CACHE_NAME = "quotes";
+
+    private final Cache<String, EnrichedQuote> cache;
+
+    // Dernière version reçue de all-quotes, y compris pour les devis absents du cache
+    private final Cache<String, EnrichedQuote> latestUpdates;
+
+    public QuoteCache(MeterRegistry meterRegistry,
+                      @Value("${quotes.cache.max-size:10000}") long maxSize,
+                      @Value("${quotes.cache.ttl:5m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.latestUpdates = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Devis en cache, ou chargé via loader (un résultat null n'est pas mis en cache).
+     * Si all-quotes a déjà livré une version plus récente que celle chargée, c'est
+     * elle qui est renvoyée et mise en cache.
+     */
+    public EnrichedQuote get(String quoteId, Function<String, EnrichedQuote> loader) {
+        return cache.get(quoteId, key -> newest(loader.apply(key), latestUpdates.getIfPresent(key)));
+    }
+
+    /**
+     * Enregistre la dernière version d'un devis et remplace celle en cache s'il y est déjà
+     */
+    public void refresh(EnrichedQuote quote) {
+        // Avant le cache : un chargement en cours la verra, ou sera remplacé juste après
+        latestUpdates.asMap().merge(quote.getQuoteId(), quote, QuoteCache::newest);
+        cache.asMap().computeIfPresent(quote.getQuoteId(), (quoteId, previous) -> newest(previous, quote));
+    }
+
+    /**
+     * Retire un devis du cache
+     */
+    public void invalidate(String quoteId) {
+        latestUpdates.invalidate(quoteId);
+        cache.invalidate(quoteId);
+    }
+
+    /**
+     * Version la plus récente (updatedAt) ; à égalité, celle reçue de all-quotes
+     */
+    private static EnrichedQuote newest(EnrichedQuote current, EnrichedQuote update) {
+        if (current == null || update == null) {
+            return update == null ? current : update;
+        }
+        return updatedAt(current) > updatedAt(update) ? current : update;
+    }
+
+    private static long updatedAt(EnrichedQuote quote) {
+        return quote.getUpdatedAt() == null ? Long.MIN_VALUE : quote.getUpdatedAt();
+    }
+}
@@ -0,0 +1,45 @@
+package com.kafka.training.queryapi.service;
+
+import com.kafka.training.common.model.EnrichedQuote;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.stereotype.Service;
+
+/**
+ * Consomme all-quotes pour garder le near-cache à jour
+ *
+ * Contrairement à QuoteChangeListener, pas de consumer group : chaque instance
+ * s'assigne toutes les partitions (quoteCachePartitions) et voit donc toutes les
+ * mises à jour, sans rebalancing ni groupe orphelin sur le broker. Seules les
+ * nouvelles mises à jour comptent : sans offset commité, lecture depuis la fin.
+ */
+@Service
+public class QuoteCacheListener {
+
+    private static final Logger log = LoggerFactory.getLogger(QuoteCacheListener.class);
+
+    private final QuoteCache quoteCache;
+
+    public QuoteCacheListener(QuoteCache quoteCache) {
+        this.quoteCache = quoteCache;
+    }
+
+    @KafkaListener(
+            topicPartitions = @TopicPartition(
+                    topic = "${quotes.index.topic:all-quotes}",
+                    partitions = "#{@quoteCachePartitions}"),
+            containerFactory = "quoteCacheListenerContainerFactory"
+    )
+    public void onQuoteChange(ConsumerRecord<String, EnrichedQuote> record) {
+        EnrichedQuote quote = record.value();
+        if (quote == null || quote.getQuoteId() == null) {
+            quoteCache.invalidate(record.key());
+            return;
+        }
+        quoteCache.refresh(quote);
+        log.debug("Quote cache refreshed: {}", quote.getQuoteId());
+    }
+}
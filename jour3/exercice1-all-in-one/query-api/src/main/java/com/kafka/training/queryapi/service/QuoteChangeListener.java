@@ -0,0 +1,45 @@
+package com.kafka.training.queryapi.service;
+
+import com.kafka.training.common.model.EnrichedQuote;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Consomme all-quotes (même flux que le connecteur Redis Sink)
+ * pour maintenir les index secondaires et les statistiques à jour
+ */
+@Service
+public class QuoteChangeListener {
+
+    private static final Logger log = LoggerFactory.getLogger(QuoteChangeListener.class);
+
+    private final QuoteIndexService indexService;
+    private final QuoteStatisticsService statisticsService;
+
+    public QuoteChangeListener(QuoteIndexService indexService,
+                               QuoteStatisticsService statisticsService) {
+        this.indexService = indexService;
+        this.statisticsService = statisticsService;
+    }
+
+    @KafkaListener(
+            topics = "${quotes.index.topic:all-quotes}",
+            containerFactory = "enrichedQuoteListenerContainerFactory"
+    )
+    public void onQuoteChange(ConsumerRecord<String, EnrichedQuote> record) {
+        EnrichedQuote quote = record.value();
+        if (quote == null) {
+            indexService.remove(record.key());
+            statisticsService.remove(record.key());
+            log.debug("Quote removed from indexes: {}", record.key());
+            return;
+        }
+        indexService.index(quote);
+        statisticsService.record(quote);
+        log.debug("Quote indexed: quoteId={}, customerId={}, productCode={}",
+                quote.getQuoteId(), quote.getCustomerId(), quote.getProductCode());
+    }
+}
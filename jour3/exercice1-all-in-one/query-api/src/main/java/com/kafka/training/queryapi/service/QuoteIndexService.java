@@ -0,0 +1,262 @@
+package com.kafka.training.queryapi.service;
+
+import com.kafka.training.common.model.EnrichedQuote;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Index secondaires Redis des devis enrichis
+ *
+ * Pour chaque devis (clé Redis = quoteId, écrite par Kafka Connect) on maintient :
+ * - quotes:idx:customer:{customerId} : sorted set des quoteId du client (score = createdAt)
+ * - quotes:idx:product:{productCode} : sorted set des quoteId du produit (score = createdAt)
+ * - quotes:idx:all                   : sorted set de tous les quoteId (score = createdAt), pour la pagination
+ * - quotes:idx:owner                 : hash quoteId -> "customerId|productCode"
+ *
+ * Le hash owner permet de retirer un devis de ses anciens index quand
+ * son client ou son produit change, sans relire l'ancienne valeur.
+ */
+@Service
+public class QuoteIndexService {
+
+    private static final Logger log = LoggerFactory.getLogger(QuoteIndexService.class);
+
+    public static final String CUSTOMER_INDEX_PREFIX = "quotes:idx:customer:";
+    public static final String PRODUCT_INDEX_PREFIX = "quotes:idx:product:";
+    public static final String ALL_INDEX_KEY = "quotes:idx:all";
+    public static final String OWNER_INDEX_KEY = "quotes:idx:owner";
+
+    private static final String OWNER_SEPARATOR = "|";
+    private static final String CURSOR_SEPARATOR = ":";
+
+    private final RedisTemplate<String, String> stringRedisTemplate;
+    private final QuoteBatchReader batchReader;
+
+    public QuoteIndexService(RedisTemplate<String, String> stringRedisTemplate,
+                             QuoteBatchReader batchReader) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.batchReader = batchReader;
+    }
+
+    /**
+     * Ajoute (ou déplace) un devis dans les index client / produit
+     */
+    public void index(EnrichedQuote quote) {
+        indexAll(List.of(quote));
+    }
+
+    /**
+     * Indexe un lot de devis : 1 HMGET pour les anciens propriétaires + 1 pipeline d'écriture
+     */
+    public void indexAll(List<EnrichedQuote> quotes) {
+        List<EnrichedQuote> indexable = quotes.stream()
+                .filter(quote -> quote != null && quote.getQuoteId() != null)
+                .toList();
+        if (indexable.isEmpty()) {
+            return;
+        }
+
+        HashOperations<String, String, String> owners = stringRedisTemplate.opsForHash();
+        List<String> previousOwners = owners.multiGet(OWNER_INDEX_KEY,
+                indexable.stream().map(EnrichedQuote::getQuoteId).toList());
+
+        executePipelined(ops -> {
+            for (int i = 0; i < indexable.size(); i++) {
+                EnrichedQuote quote = indexable.get(i);
+                String previous = previousOwners != null ? previousOwners.get(i) : null;
+                String current = owner(quote.getCustomerId(), quote.getProductCode());
+
+                if (previous != null && !previous.equals(current)) {
+                    unindex(ops, quote.getQuoteId(), previous);
+                }
+
+                double score = score(quote);
+                ops.opsForZSet().add(ALL_INDEX_KEY, quote.getQuoteId(), score);
+                if (quote.getCustomerId() != null) {
+                    ops.opsForZSet().add(CUSTOMER_INDEX_PREFIX + quote.getCustomerId(), quote.getQuoteId(), score);
+                }
+                if (quote.getProductCode() != null) {
+                    ops.opsForZSet().add(PRODUCT_INDEX_PREFIX + quote.getProductCode(), quote.getQuoteId(), score);
+                }
+                ops.opsForHash().put(OWNER_INDEX_KEY, quote.getQuoteId(), current);
+            }
+        });
+    }
+
+    /**
+     * Retire un devis de tous ses index (tombstone sur all-quotes)
+     */
+    public void remove(String quoteId) {
+        HashOperations<String, String, String> owners = stringRedisTemplate.opsForHash();
+        String previous = owners.get(OWNER_INDEX_KEY, quoteId);
+        if (previous == null) {
+            return;
+        }
+        executePipelined(ops -> {
+            unindex(ops, quoteId, previous);
+            ops.opsForZSet().remove(ALL_INDEX_KEY, quoteId);
+            ops.opsForHash().delete(OWNER_INDEX_KEY, quoteId);
+        });
+    }
+
+    /**
+     * Identifiants des devis d'un client, du plus ancien au plus récent
+     */
+    public List<String> findQuoteIdsByCustomer(String customerId) {
+        return range(CUSTOMER_INDEX_PREFIX + customerId);
+    }
+
+    /**
+     * Identifiants des devis d'un produit, du plus ancien au plus récent
+     */
+    public List<String> findQuoteIdsByProduct(String productCode) {
+        return range(PRODUCT_INDEX_PREFIX + productCode);
+    }
+
+    /**
+     * Page de quoteId triés par (createdAt, quoteId), à partir d'un curseur opaque.
+     *
+     * Le curseur "{score}:{quoteId}" désigne le dernier devis déjà renvoyé : la page
+     * reprend juste après, même si des devis ont été ajoutés entre-temps.
+     *
+     * @param cursor curseur renvoyé par la page précédente, ou null pour commencer au début
+     * @param limit  nombre maximum d'identifiants
+     */
+    public IndexPage findQuoteIdsAfter(String cursor, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        double minScore = Double.NEGATIVE_INFINITY;
+        String lastId = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            int separator = cursor.indexOf(CURSOR_SEPARATOR);
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            try {
+                minScore = Double.parseDouble(cursor.substring(0, separator));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            lastId = cursor.substring(separator + 1);
+        }
+
+        // limit + 1 pour savoir s'il reste une page après celle-ci
+        List<ZSetOperations.TypedTuple<String>> entries = new ArrayList<>(limit + 1);
+        long offset = 0;
+        while (entries.size() <= limit) {
+            Set<ZSetOperations.TypedTuple<String>> tuples = stringRedisTemplate.opsForZSet()
+                    .rangeByScoreWithScores(ALL_INDEX_KEY, minScore, Double.POSITIVE_INFINITY, offset, limit + 1);
+            if (tuples == null || tuples.isEmpty()) {
+                break;
+            }
+            for (ZSetOperations.TypedTuple<String> tuple : tuples) {
+                offset++;
+                // Même score que le curseur : ignorer les membres déjà renvoyés (ordre lexicographique Redis)
+                if (lastId != null && tuple.getScore() != null && tuple.getScore() == minScore
+                        && tuple.getValue().compareTo(lastId) <= 0) {
+                    continue;
+                }
+                if (entries.size() <= limit) {
+                    entries.add(tuple);
+                }
+            }
+            if (tuples.size() < limit + 1) {
+                break;
+            }
+        }
+
+        String nextCursor = null;
+        if (entries.size() > limit) {
+            entries = entries.subList(0, limit);
+            ZSetOperations.TypedTuple<String> last = entries.get(limit - 1);
+            nextCursor = String.format(Locale.ROOT, "%.0f", last.getScore()) + CURSOR_SEPARATOR + last.getValue();
+        }
+        return new IndexPage(entries.stream().map(ZSetOperations.TypedTuple::getValue).toList(), nextCursor);
+    }
+
+    /**
+     * Reconstruit les index à partir des devis déjà présents dans Redis (SCAN par lots)
+     *
+     * @return le nombre de devis indexés
+     */
+    public long rebuild() {
+        long indexed = batchReader.forEachBatch(this::indexAll);
+        log.info("Quote indexes rebuilt: {} quotes indexed", indexed);
+        return indexed;
+    }
+
+    private List<String> range(String indexKey) {
+        Set<String> ids = stringRedisTemplate.opsForZSet().range(indexKey, 0, -1);
+        return ids != null ? new ArrayList<>(ids) : Collections.emptyList();
+    }
+
+    private void unindex(RedisOperations<String, String> ops, String quoteId, String owner) {
+        int separator = owner.indexOf(OWNER_SEPARATOR);
+        String customerId = owner.substring(0, separator);
+        String productCode = owner.substring(separator + 1);
+        if (!customerId.isEmpty()) {
+            ops.opsForZSet().remove(CUSTOMER_INDEX_PREFIX + customerId, quoteId);
+        }
+        if (!productCode.isEmpty()) {
+            ops.opsForZSet().remove(PRODUCT_INDEX_PREFIX + productCode, quoteId);
+        }
+    }
+
+    private void executePipelined(PipelineAction action) {
+        stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                action.run((RedisOperations<String, String>) operations);
+                return null;
+            }
+        });
+    }
+
+    private static String owner(String customerId, String productCode) {
+        return (customerId != null ? customerId : "") + OWNER_SEPARATOR
+                + (productCode != null ? productCode : "");
+    }
+
+    private static double score(EnrichedQuote quote) {
+        if (quote.getCreatedAt() != null) {
+            return quote.getCreatedAt();
+        }
+        return quote.getUpdatedAt() != null ? quote.getUpdatedAt() : 0;
+    }
+
+    /**
+     * Page d'identifiants et curseur de la page suivante (null si c'est la dernière)
+     */
+    public static final class IndexPage {
+        private final List<String> quoteIds;
+        private final String nextCursor;
+
+        public IndexPage(List<String> quoteIds, String nextCursor) {
+            this.quoteIds = quoteIds;
+            this.nextCursor = nextCursor;
+        }
+
+        public List<String> getQuoteIds() {
+            return quoteIds;
+        }
+
+        public String getNextCursor() {
+            return nextCursor;
+        }
+    }
+
+    @FunctionalInterface
+    private interface PipelineAction {
+        void run(RedisOperations<String, String> ops);
+    }
+}
@@ -1,12 +1,19 @@
 package com.kafka.training.queryapi.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.kafka.training.common.model.EnrichedQuote;
+import com.kafka.training.queryapi.model.QuotePage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -15,12 +22,29 @@ public class QuoteQueryService {
 
     private static final Logger log = LoggerFactory.getLogger(QuoteQueryService.class);
     private final RedisTemplate<String, String> stringRedisTemplate;
-    private final ObjectMapper objectMapper;
+    private final ObjectReader quoteReader;
+    private final QuoteIndexService indexService;
+    private final QuoteBatchReader batchReader;
+    private final QuoteStatisticsService statisticsService;
+    private final QuoteCache quoteCache;
+    private final ObjectWriter quoteWriter;
+
+    @Value("${quotes.export.page-size:500}")
+    private int exportPageSize;
 
     public QuoteQueryService(RedisTemplate<String, String> stringRedisTemplate,
-                             ObjectMapper objectMapper) {
+                             ObjectMapper objectMapper,
+                             QuoteIndexService indexService,
+                             QuoteBatchReader batchReader,
+                             QuoteStatisticsService statisticsService,
+                             QuoteCache quoteCache) {
         this.stringRedisTemplate = stringRedisTemplate;
-        this.objectMapper = objectMapper;
+        this.quoteReader = objectMapper.readerFor(EnrichedQuote.class);
+        this.indexService = indexService;
+        this.batchReader = batchReader;
+        this.statisticsService = statisticsService;
+        this.quoteCache = quoteCache;
+        this.quoteWriter = objectMapper.writerFor(EnrichedQuote.class);
     }
 
     /**
@@ -28,9 +52,8 @@ public class QuoteQueryService {
      */
     public Optional<EnrichedQuote> getQuoteById(String quoteId) {
         try {
-            String json = stringRedisTemplate.opsForValue().get(quoteId);
-            if (json != null) {
-                EnrichedQuote quote = objectMapper.readValue(json, EnrichedQuote.class);
+            EnrichedQuote quote = quoteCache.get(quoteId, this::loadQuote);
+            if (quote != null) {
                 log.info("Quote found: {}", quoteId);
                 return Optional.of(quote);
             }
@@ -43,54 +66,45 @@ public class QuoteQueryService {
     }
 
     /**
-     * Récupère tous les devis (limité aux 100 premiers)
+     * Récupère une page de devis triés par date de création (index quotes:idx:all)
+     *
+     * @param cursor curseur de la page précédente (null pour la première page)
      */
-    public List<EnrichedQuote> getAllQuotes(int limit) {
-        try {
-            Set<String> keys = stringRedisTemplate.keys("Q-*");
-            if (keys == null || keys.isEmpty()) {
-                return Collections.emptyList();
+    public QuotePage getQuotesPage(String cursor, int limit) {
+        QuoteIndexService.IndexPage page = indexService.findQuoteIdsAfter(cursor, limit);
+        return new QuotePage(batchReader.read(page.getQuoteIds()), page.getNextCursor());
+    }
+
+    /**
+     * Exporte tous les devis en NDJSON (un devis JSON par ligne), page par page :
+     * la mémoire utilisée ne dépend que de quotes.export.page-size, pas du nombre de devis.
+     *
+     * @return le nombre de devis écrits
+     */
+    public long exportQuotes(OutputStream out) throws IOException {
+        long exported = 0;
+        String cursor = null;
+        do {
+            QuoteIndexService.IndexPage page = indexService.findQuoteIdsAfter(cursor, exportPageSize);
+            for (EnrichedQuote quote : batchReader.read(page.getQuoteIds())) {
+                out.write(quoteWriter.writeValueAsBytes(quote));
+                out.write('\n');
+                exported++;
             }
+            out.flush();
+            cursor = page.getNextCursor();
+        } while (cursor != null);
 
-            return keys.stream()
-                    .limit(limit)
-                    .map(key -> {
-                        try {
-                            String json = stringRedisTemplate.opsForValue().get(key);
-                            return json != null ? objectMapper.readValue(json, EnrichedQuote.class) : null;
-                        } catch (Exception e) {
-                            log.error("Error parsing quote {}: {}", key, e.getMessage());
-                            return null;
-                        }
-                    })
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toList());
-        } catch (Exception e) {
-            log.error("Error reading all quotes from Redis: {}", e.getMessage());
-            return Collections.emptyList();
-        }
+        log.info("Quotes exported: {}", exported);
+        return exported;
     }
 
     /**
-     * Récupère les devis d'un client
+     * Récupère les devis d'un client (via l'index quotes:idx:customer:{customerId})
      */
     public List<EnrichedQuote> getQuotesByCustomer(String customerId) {
         try {
-            Set<String> keys = stringRedisTemplate.keys("Q-*");
-            if (keys == null || keys.isEmpty()) {
-                return Collections.emptyList();
-            }
-
-            return keys.stream()
-                    .map(key -> {
-                        try {
-                            String json = stringRedisTemplate.opsForValue().get(key);
-                            return json != null ? objectMapper.readValue(json, EnrichedQuote.class) : null;
-                        } catch (Exception e) {
-                            return null;
-                        }
-                    })
-                    .filter(Objects::nonNull)
+            return batchReader.read(indexService.findQuoteIdsByCustomer(customerId)).stream()
                     .filter(quote -> customerId.equals(quote.getCustomerId()))
                     .collect(Collectors.toList());
         } catch (Exception e) {
@@ -100,25 +114,11 @@ public class QuoteQueryService {
     }
 
     /**
-     * Récupère les devis d'un produit
+     * Récupère les devis d'un produit (via l'index quotes:idx:product:{productCode})
      */
     public List<EnrichedQuote> getQuotesByProduct(String productCode) {
         try {
-            Set<String> keys = stringRedisTemplate.keys("Q-*");
-            if (keys == null || keys.isEmpty()) {
-                return Collections.emptyList();
-            }
-
-            return keys.stream()
-                    .map(key -> {
-                        try {
-                            String json = stringRedisTemplate.opsForValue().get(key);
-                            return json != null ? objectMapper.readValue(json, EnrichedQuote.class) : null;
-                        } catch (Exception e) {
-                            return null;
-                        }
-                    })
-                    .filter(Objects::nonNull)
+            return batchReader.read(indexService.findQuoteIdsByProduct(productCode)).stream()
                     .filter(quote -> productCode.equals(quote.getProductCode()))
                     .collect(Collectors.toList());
         } catch (Exception e) {
@@ -128,45 +128,28 @@ public class QuoteQueryService {
     }
 
     /**
-     * Calcule des statistiques globales
+     * Lecture d'un devis dans Redis, en cas d'absence du near-cache
      */
-    public Map<String, Object> getStatistics() {
+    private EnrichedQuote loadQuote(String quoteId) {
+        String json = stringRedisTemplate.opsForValue().get(quoteId);
+        if (json == null) {
+            return null;
+        }
         try {
-            Set<String> keys = stringRedisTemplate.keys("Q-*");
-            if (keys == null || keys.isEmpty()) {
-                return Collections.emptyMap();
-            }
-
-            List<EnrichedQuote> allQuotes = keys.stream()
-                    .map(key -> {
-                        try {
-                            String json = stringRedisTemplate.opsForValue().get(key);
-                            return json != null ? objectMapper.readValue(json, EnrichedQuote.class) : null;
-                        } catch (Exception e) {
-                            return null;
-                        }
-                    })
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toList());
-
-            Map<String, Object> stats = new HashMap<>();
-            stats.put("totalQuotes", allQuotes.size());
-            stats.put("totalPremium", allQuotes.stream()
-                    .mapToDouble(q -> q.getFinalPremium() != null ? q.getFinalPremium() : 0.0)
-                    .sum());
-            stats.put("averagePremium", allQuotes.stream()
-                    .mapToDouble(q -> q.getFinalPremium() != null ? q.getFinalPremium() : 0.0)
-                    .average()
-                    .orElse(0.0));
-            stats.put("byProduct", allQuotes.stream()
-                    .collect(Collectors.groupingBy(
-                            EnrichedQuote::getProductCode,
-                            Collectors.counting()
-                    )));
+            return quoteReader.readValue(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
-            return stats;
+    /**
+     * Statistiques globales, maintenues au fil de l'eau (lecture en O(1))
+     */
+    public Map<String, Object> getStatistics() {
+        try {
+            return statisticsService.getStatistics();
         } catch (Exception e) {
-            log.error("Error computing statistics: {}", e.getMessage());
+            log.error("Error reading statistics: {}", e.getMessage());
             return Collections.emptyMap();
         }
     }
@@ -0,0 +1,117 @@
+package com.kafka.training.queryapi.service;
+
+import com.kafka.training.common.model.EnrichedQuote;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Statistiques globales des devis, maintenues de façon incrémentale dans Redis
+ *
+ * - quotes:stats         : hash count / totalPremium / product:{code}
+ * - quotes:stats:contrib : hash quoteId -> "productCode|finalPremium"
+ *
+ * Chaque devis reçu sur all-quotes met à jour les compteurs via le script
+ * scripts/quote-stats.lua (atomique, 1 aller-retour). La lecture des
+ * statistiques est un simple HGETALL, indépendant du nombre de devis.
+ */
+@Service
+public class QuoteStatisticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(QuoteStatisticsService.class);
+
+    public static final String STATS_KEY = "quotes:stats";
+    public static final String CONTRIBUTIONS_KEY = "quotes:stats:contrib";
+
+    private static final String COUNT_FIELD = "count";
+    private static final String TOTAL_PREMIUM_FIELD = "totalPremium";
+    private static final String PRODUCT_FIELD_PREFIX = "product:";
+
+    private static final RedisScript<Long> STATS_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/quote-stats.lua"), Long.class);
+
+    private final RedisTemplate<String, String> stringRedisTemplate;
+    private final QuoteBatchReader batchReader;
+
+    public QuoteStatisticsService(RedisTemplate<String, String> stringRedisTemplate,
+                                  QuoteBatchReader batchReader) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.batchReader = batchReader;
+    }
+
+    /**
+     * Ajoute un devis aux statistiques, ou remplace sa contribution précédente
+     */
+    public void record(EnrichedQuote quote) {
+        if (quote == null || quote.getQuoteId() == null) {
+            return;
+        }
+        double premium = quote.getFinalPremium() != null ? quote.getFinalPremium() : 0.0;
+        stringRedisTemplate.execute(STATS_SCRIPT, List.of(STATS_KEY, CONTRIBUTIONS_KEY),
+                quote.getQuoteId(),
+                quote.getProductCode() != null ? quote.getProductCode() : "",
+                Double.toString(premium),
+                "0");
+    }
+
+    /**
+     * Retire la contribution d'un devis (tombstone sur all-quotes)
+     */
+    public void remove(String quoteId) {
+        stringRedisTemplate.execute(STATS_SCRIPT, List.of(STATS_KEY, CONTRIBUTIONS_KEY),
+                quoteId, "", "0", "1");
+    }
+
+    /**
+     * Lit les statistiques globales (1 HGETALL)
+     */
+    public Map<String, Object> getStatistics() {
+        Map<Object, Object> fields = stringRedisTemplate.opsForHash().entries(STATS_KEY);
+        long totalQuotes = parseLong(fields.get(COUNT_FIELD));
+        if (totalQuotes <= 0) {
+            return Collections.emptyMap();
+        }
+        double totalPremium = parseDouble(fields.get(TOTAL_PREMIUM_FIELD));
+
+        Map<String, Long> byProduct = new TreeMap<>();
+        fields.forEach((field, value) -> {
+            String name = field.toString();
+            long count = parseLong(value);
+            if (name.startsWith(PRODUCT_FIELD_PREFIX) && count > 0) {
+                byProduct.put(name.substring(PRODUCT_FIELD_PREFIX.length()), count);
+            }
+        });
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalQuotes", totalQuotes);
+        stats.put("totalPremium", totalPremium);
+        stats.put("averagePremium", totalPremium / totalQuotes);
+        stats.put("byProduct", byProduct);
+        return stats;
+    }
+
+    /**
+     * Recalcule les contributions de tous les devis présents dans Redis (SCAN par lots).
+     * Idempotent : un devis déjà compté remplace simplement sa contribution.
+     *
+     * @return le nombre de devis pris en compte
+     */
+    public long rebuild() {
+        long recorded = batchReader.forEachBatch(quotes -> quotes.forEach(this::record));
+        log.info("Quote statistics rebuilt: {} quotes recorded", recorded);
+        return recorded;
+    }
+
+    private static long parseLong(Object value) {
+        return value != null ? Long.parseLong(value.toString()) : 0L;
+    }
+
+    private static double parseDouble(Object value) {
+        return value != null ? Double.parseDouble(value.toString()) : 0.0;
+    }
+}
@@ -0,0 +1,36 @@
+-- Mise à jour incrémentale des statistiques globales des devis
+--
+-- KEYS[1] : hash des statistiques (count, totalPremium, product:{code})
+-- KEYS[2] : hash des contributions par devis (quoteId -> "productCode|finalPremium")
+-- ARGV[1] : quoteId
+-- ARGV[2] : productCode ("" si inconnu)
+-- ARGV[3] : finalPremium
+-- ARGV[4] : "1" pour retirer le devis, "0" pour l'ajouter / le mettre à jour
+--
+-- La contribution précédente du devis est d'abord retirée : une mise à jour
+-- (ou une relivraison du même message) n'est jamais comptée deux fois.
+
+local previous = redis.call('HGET', KEYS[2], ARGV[1])
+if previous then
+    local separator = string.find(previous, '|', 1, true)
+    local previousProduct = string.sub(previous, 1, separator - 1)
+    local previousPremium = tonumber(string.sub(previous, separator + 1))
+    redis.call('HINCRBY', KEYS[1], 'count', -1)
+    redis.call('HINCRBYFLOAT', KEYS[1], 'totalPremium', -previousPremium)
+    if previousProduct ~= '' then
+        redis.call('HINCRBY', KEYS[1], 'product:' .. previousProduct, -1)
+    end
+end
+
+if ARGV[4] == '1' then
+    redis.call('HDEL', KEYS[2], ARGV[1])
+    return 0
+end
+
+redis.call('HINCRBY', KEYS[1], 'count', 1)
+redis.call('HINCRBYFLOAT', KEYS[1], 'totalPremium', ARGV[3])
+if ARGV[2] ~= '' then
+    redis.call('HINCRBY', KEYS[1], 'product:' .. ARGV[2], 1)
+end
+redis.call('HSET', KEYS[2], ARGV[1], ARGV[2] .. '|' .. ARGV[3])
+return 1
@@ -0,0 +1,163 @@
+package com.kafka.training.queryapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fppt.jedismock.RedisServer;
+import com.kafka.training.common.model.EnrichedQuote;
+import com.kafka.training.common.model.QuoteStatus;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * QuoteBatchReader contre un serveur Redis en mémoire (jedis-mock, protocole RESP) :
+ * mêmes commandes MGET, pipeline et SCAN qu'avec un vrai Redis, sans Docker.
+ */
+class QuoteBatchReaderTest {
+
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        redisServer = RedisServer.newRedisServer();
+        redisServer.start();
+
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(redisServer.getHost(), redisServer.getBindPort()));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void flushDb() {
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().flushDb();
+            return null;
+        });
+    }
+
+    @Test
+    void emptyKeyListReturnsEmptyResult() {
+        assertThat(reader(10, 256).read(List.of())).isEmpty();
+    }
+
+    @Test
+    void singleChunkIsReadInKeyOrder() throws Exception {
+        List<String> keys = store(5);
+        Collections.reverse(keys);
+
+        List<EnrichedQuote> quotes = reader(5, 256).read(keys);
+
+        assertThat(quoteIds(quotes)).containsExactlyElementsOf(keys);
+    }
+
+    @Test
+    void multipleChunksArePipelinedAndKeepKeyOrder() throws Exception {
+        List<String> keys = store(10);
+        Collections.reverse(keys);
+
+        // 4 lots (3 + 3 + 3 + 1) dans un même pipeline
+        List<EnrichedQuote> quotes = reader(3, 256).read(keys);
+
+        assertThat(quoteIds(quotes)).containsExactlyElementsOf(keys);
+    }
+
+    @Test
+    void missingKeysAndInvalidJsonAreSkipped() throws Exception {
+        List<String> stored = store(6);
+        redisTemplate.opsForValue().set("Q-BROKEN", "{not json");
+
+        List<String> keys = new ArrayList<>(stored);
+        keys.add(1, "Q-MISSING");
+        keys.add(4, "Q-BROKEN");
+        keys.add("Q-MISSING-LAST");
+
+        for (int batchSize : new int[]{keys.size(), 2}) {
+            List<EnrichedQuote> quotes = reader(batchSize, 256).read(keys);
+
+            assertThat(quoteIds(quotes)).as("batchSize=%d", batchSize).containsExactlyElementsOf(stored);
+        }
+    }
+
+    @Test
+    void parallelParsingAboveThresholdKeepsKeyOrder() throws Exception {
+        List<String> keys = store(1000);
+        Collections.reverse(keys);
+        keys.add(500, "Q-MISSING");
+
+        List<EnrichedQuote> sequential = reader(100, Integer.MAX_VALUE).read(keys);
+        List<EnrichedQuote> parallel = reader(100, 1).read(keys);
+        // Pile au seuil : parsing parallèle dès que le nombre de valeurs l'atteint
+        List<EnrichedQuote> atThreshold = reader(100, keys.size()).read(keys);
+
+        List<String> expected = new ArrayList<>(keys);
+        expected.remove("Q-MISSING");
+        assertThat(quoteIds(sequential)).containsExactlyElementsOf(expected);
+        assertThat(quoteIds(parallel)).containsExactlyElementsOf(expected);
+        assertThat(quoteIds(atThreshold)).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void forEachBatchScansAllQuotes() throws Exception {
+        List<String> keys = store(25);
+        redisTemplate.opsForValue().set("other-key", "ignored");
+
+        List<Integer> batchSizes = new ArrayList<>();
+        List<String> seen = new ArrayList<>();
+        long count = reader(10, 256).forEachBatch(batch -> {
+            batchSizes.add(batch.size());
+            seen.addAll(quoteIds(batch));
+        });
+
+        assertThat(count).isEqualTo(25);
+        assertThat(seen).containsExactlyInAnyOrderElementsOf(keys);
+        assertThat(batchSizes).allMatch(size -> size <= 10);
+    }
+
+    private QuoteBatchReader reader(int batchSize, int parallelThreshold) {
+        return new QuoteBatchReader(redisTemplate, objectMapper, batchSize, parallelThreshold);
+    }
+
+    /**
+     * Écrit count devis Q-00000000.. (comme Kafka Connect) et renvoie leurs clés
+     */
+    private List<String> store(int count) throws Exception {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            String quoteId = String.format("Q-%08d", i);
+            EnrichedQuote quote = new EnrichedQuote(quoteId, "C001", QuoteStatus.VALIDATED, "AUTO",
+                    100.0 + i, 120.0 + i, (long) i, (long) i, "Auto Insurance", 500.0, 0.20);
+            values.put(quoteId, objectMapper.writeValueAsString(quote));
+        }
+        redisTemplate.opsForValue().multiSet(values);
+        return new ArrayList<>(values.keySet());
+    }
+
+    private static List<String> quoteIds(List<EnrichedQuote> quotes) {
+        return quotes.stream().map(EnrichedQuote::getQuoteId).toList();
+    }
+}
@@ -0,0 +1,118 @@
+package com.kafka.training.streams.config;
+
+import org.apache.kafka.streams.state.RocksDBConfigSetter;
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.BloomFilter;
+import org.rocksdb.Cache;
+import org.rocksdb.IndexType;
+import org.rocksdb.LRUCache;
+import org.rocksdb.Options;
+import org.rocksdb.WriteBufferManager;
+
+import java.util.Map;
+
+/**
+ * Mémoire RocksDB bornée pour tous les state stores de l'application
+ *
+ * Par défaut, chaque store (et chaque segment d'un store fenêtré) a son propre block
+ * cache et ses propres memtables : la mémoire hors tas croît avec le nombre de stores
+ * et de partitions. Ici, tous partagent :
+ * - un block cache LRU de total-off-heap-bytes (blocs de données, index et filtres)
+ * - un WriteBufferManager qui impute les memtables (total-memtable-bytes) sur ce même cache
+ *
+ * Les filtres de Bloom (bloom-bits-per-key) évitent de lire les fichiers SST qui ne
+ * contiennent pas la clé cherchée (jointures, interactive queries).
+ *
+ * Instancié par Kafka Streams pour chaque store (rocksdb.config.setter) : les réglages
+ * sont lus dans la configuration Streams (clés quotes.rocksdb.*, voir KafkaStreamsConfig).
+ */
+public class BoundedMemoryRocksDBConfig implements RocksDBConfigSetter {
+
+    public static final String TOTAL_OFF_HEAP_BYTES_CONFIG = "quotes.rocksdb.total-off-heap-bytes";
+    public static final String TOTAL_MEMTABLE_BYTES_CONFIG = "quotes.rocksdb.total-memtable-bytes";
+    public static final String INDEX_FILTER_RATIO_CONFIG = "quotes.rocksdb.index-filter-ratio";
+    public static final String BLOOM_BITS_PER_KEY_CONFIG = "quotes.rocksdb.bloom-bits-per-key";
+
+    private static final long DEFAULT_TOTAL_OFF_HEAP_BYTES = 64L * 1024 * 1024;
+    private static final long DEFAULT_TOTAL_MEMTABLE_BYTES = 16L * 1024 * 1024;
+    private static final double DEFAULT_INDEX_FILTER_RATIO = 0.1;
+    private static final double DEFAULT_BLOOM_BITS_PER_KEY = 10;
+
+    private static Cache cache;
+    private static WriteBufferManager writeBufferManager;
+    private static long cacheCapacity;
+
+    private BloomFilter filter;
+
+    @Override
+    public void setConfig(String storeName, Options options, Map<String, Object> configs) {
+        Cache sharedCache = sharedCache(configs);
+
+        BlockBasedTableConfig tableConfig = (BlockBasedTableConfig) options.tableFormatConfig();
+        tableConfig.setBlockCache(sharedCache);
+        // Index et filtres dans le cache (donc bornés), en priorité haute pour ne pas être évincés
+        tableConfig.setCacheIndexAndFilterBlocks(true);
+        tableConfig.setCacheIndexAndFilterBlocksWithHighPriority(true);
+        tableConfig.setPinTopLevelIndexAndFilter(true);
+        // Index et filtres partitionnés : seul le niveau supérieur reste épinglé
+        tableConfig.setIndexType(IndexType.kTwoLevelIndexSearch);
+        tableConfig.setPartitionFilters(true);
+
+        filter = new BloomFilter(doubleConfig(configs, BLOOM_BITS_PER_KEY_CONFIG, DEFAULT_BLOOM_BITS_PER_KEY));
+        tableConfig.setFilterPolicy(filter);
+
+        options.setWriteBufferManager(writeBufferManager);
+        options.setTableFormatConfig(tableConfig);
+    }
+
+    @Override
+    public void close(String storeName, Options options) {
+        // Le cache et le WriteBufferManager sont partagés : seul le filtre appartient au store
+        if (filter != null) {
+            filter.close();
+        }
+    }
+
+    /**
+     * Mémoire occupée dans le cache partagé (blocs, index, filtres et memtables), -1 avant
+     * l'ouverture du premier store
+     */
+    public static synchronized long sharedCacheUsage() {
+        return cache != null ? cache.getUsage() : -1;
+    }
+
+    /**
+     * Part de sharedCacheUsage non évinçable (blocs en cours d'utilisation, niveau supérieur
+     * des index et filtres)
+     */
+    public static synchronized long sharedCachePinnedUsage() {
+        return cache != null ? cache.getPinnedUsage() : -1;
+    }
+
+    public static synchronized long sharedCacheCapacity() {
+        return cacheCapacity;
+    }
+
+    private static synchronized Cache sharedCache(Map<String, Object> configs) {
+        if (cache == null) {
+            long totalOffHeap = longConfig(configs, TOTAL_OFF_HEAP_BYTES_CONFIG, DEFAULT_TOTAL_OFF_HEAP_BYTES);
+            long totalMemtable = longConfig(configs, TOTAL_MEMTABLE_BYTES_CONFIG, DEFAULT_TOTAL_MEMTABLE_BYTES);
+            double indexFilterRatio = doubleConfig(configs, INDEX_FILTER_RATIO_CONFIG, DEFAULT_INDEX_FILTER_RATIO);
+            // strictCapacityLimit=false : dépasser temporairement plutôt que faire échouer une lecture
+            cache = new LRUCache(totalOffHeap, -1, false, indexFilterRatio);
+            writeBufferManager = new WriteBufferManager(totalMemtable, cache);
+            cacheCapacity = totalOffHeap;
+        }
+        return cache;
+    }
+
+    private static long longConfig(Map<String, Object> configs, String key, long defaultValue) {
+        Object value = configs.get(key);
+        return value != null ? Long.parseLong(value.toString()) : defaultValue;
+    }
+
+    private static double doubleConfig(Map<String, Object> configs, String key, double defaultValue) {
+        Object value = configs.get(key);
+        return value != null ? Double.parseDouble(value.toString()) : defaultValue;
+    }
+}
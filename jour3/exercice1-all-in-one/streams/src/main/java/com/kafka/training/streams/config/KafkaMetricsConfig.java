@@ -1,5 +1,6 @@
 package com.kafka.training.streams.config;
 
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.binder.kafka.KafkaStreamsMetrics;
 import org.apache.kafka.streams.KafkaStreams;
@@ -8,6 +9,12 @@ import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.kafka.config.StreamsBuilderFactoryBean;
 
+import java.util.function.LongSupplier;
+
+/**
+ * Métriques Kafka Streams dans Micrometer : métriques du client (kafka_stream_*, dont les
+ * métriques RocksDB de chaque store : kafka_stream_state_*) et cache RocksDB partagé
+ */
 @Configuration
 public class KafkaMetricsConfig {
 
@@ -26,5 +33,24 @@ public class KafkaMetricsConfig {
         if (kafkaStreams != null) {
             new KafkaStreamsMetrics(kafkaStreams).bindTo(meterRegistry);
         }
+        registerRocksDbGauge("rocksdb.shared.cache.usage",
+                "Shared RocksDB block cache usage (blocks, index, filters and memtables)",
+                BoundedMemoryRocksDBConfig::sharedCacheUsage);
+        registerRocksDbGauge("rocksdb.shared.cache.pinned.usage",
+                "Pinned part of the shared RocksDB block cache",
+                BoundedMemoryRocksDBConfig::sharedCachePinnedUsage);
+        registerRocksDbGauge("rocksdb.shared.cache.capacity",
+                "Capacity of the shared RocksDB block cache",
+                BoundedMemoryRocksDBConfig::sharedCacheCapacity);
+    }
+
+    private void registerRocksDbGauge(String name, String description, LongSupplier value) {
+        Gauge.builder(name, value, supplier -> {
+                    long bytes = supplier.getAsLong();
+                    return bytes >= 0 ? bytes : Double.NaN;
+                })
+                .description(description)
+                .baseUnit("bytes")
+                .register(meterRegistry);
     }
 }
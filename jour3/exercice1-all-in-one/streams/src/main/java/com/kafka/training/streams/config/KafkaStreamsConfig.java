@@ -1,15 +1,17 @@
 package com.kafka.training.streams.config;
 
-import com.kafka.training.common.model.EnrichedQuote;
-import com.kafka.training.common.model.Quote;
-import com.kafka.training.common.model.ProductPricing;
-import com.kafka.training.common.model.QuoteAggregate;
-import com.kafka.training.common.serde.JsonSerde;
+import com.kafka.training.common.serde.QuoteCodecs;
+import com.kafka.training.common.serde.SerdeFormat;
+import com.kafka.training.common.serde.TopicSerdes;
+import com.kafka.training.streams.topology.AggregateEmitPolicy;
 import org.apache.kafka.common.serialization.Serdes;
 import org.apache.kafka.streams.StreamsConfig;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.kafka.annotation.KafkaStreamsDefaultConfiguration;
 import org.springframework.kafka.config.KafkaStreamsConfiguration;
 
@@ -25,6 +27,21 @@ public class KafkaStreamsConfig {
     @Value("${spring.kafka.streams.application-id}")
     private String applicationId;
 
+    @Value("${quotes.interactive-queries.application-server}")
+    private String applicationServer;
+
+    @Value("${quotes.rocksdb.total-off-heap-bytes:67108864}")
+    private long rocksDbTotalOffHeapBytes;
+
+    @Value("${quotes.rocksdb.total-memtable-bytes:16777216}")
+    private long rocksDbTotalMemtableBytes;
+
+    @Value("${quotes.rocksdb.index-filter-ratio:0.1}")
+    private double rocksDbIndexFilterRatio;
+
+    @Value("${quotes.rocksdb.bloom-bits-per-key:10}")
+    private double rocksDbBloomBitsPerKey;
+
     @Bean(name = KafkaStreamsDefaultConfiguration.DEFAULT_STREAMS_CONFIG_BEAN_NAME)
     public KafkaStreamsConfiguration kStreamsConfig() {
         Map<String, Object> props = new HashMap<>();
@@ -36,26 +53,40 @@ public class KafkaStreamsConfig {
         // Pour voir la topologie dans les logs
         props.put(StreamsConfig.TOPOLOGY_OPTIMIZATION_CONFIG, StreamsConfig.OPTIMIZE);
 
-        return new KafkaStreamsConfiguration(props);
-    }
+        // host:port de cette instance, publié aux autres pour le routage des interactive queries
+        props.put(StreamsConfig.APPLICATION_SERVER_CONFIG, applicationServer);
 
-    @Bean
-    public JsonSerde<Quote> quoteSerde() {
-        return new JsonSerde<>(Quote.class);
-    }
+        // Block cache et memtables RocksDB partagés et bornés pour tous les stores
+        props.put(StreamsConfig.ROCKSDB_CONFIG_SETTER_CLASS_CONFIG, BoundedMemoryRocksDBConfig.class);
+        props.put(BoundedMemoryRocksDBConfig.TOTAL_OFF_HEAP_BYTES_CONFIG, rocksDbTotalOffHeapBytes);
+        props.put(BoundedMemoryRocksDBConfig.TOTAL_MEMTABLE_BYTES_CONFIG, rocksDbTotalMemtableBytes);
+        props.put(BoundedMemoryRocksDBConfig.INDEX_FILTER_RATIO_CONFIG, rocksDbIndexFilterRatio);
+        props.put(BoundedMemoryRocksDBConfig.BLOOM_BITS_PER_KEY_CONFIG, rocksDbBloomBitsPerKey);
 
-    @Bean
-    public JsonSerde<ProductPricing> productPricingSerde() {
-        return new JsonSerde<>(ProductPricing.class);
+        return new KafkaStreamsConfiguration(props);
     }
 
+    /**
+     * Serde par topic : JSON par défaut, BINARY pour les topics listés dans quotes.serde.topics
+     */
     @Bean
-    public JsonSerde<EnrichedQuote> enrichedQuoteSerde() {
-        return new JsonSerde<>(EnrichedQuote.class);
+    public TopicSerdes topicSerdes(Environment environment) {
+        Binder binder = Binder.get(environment);
+        SerdeFormat defaultFormat = binder.bind("quotes.serde.default-format", SerdeFormat.class)
+                .orElse(SerdeFormat.JSON);
+        Map<String, SerdeFormat> topicFormats = binder
+                .bind("quotes.serde.topics", Bindable.mapOf(String.class, SerdeFormat.class))
+                .orElse(Map.of());
+        return new TopicSerdes(defaultFormat, topicFormats, QuoteCodecs.ALL);
     }
 
+    /**
+     * Émission des agrégats horaires (quotes.aggregates.emit) : UPDATES, WINDOW_CLOSE ou PERIODIC
+     */
     @Bean
-    public JsonSerde<QuoteAggregate> quoteAggregateSerde() {
-        return new JsonSerde<>(QuoteAggregate.class);
+    public AggregateEmitPolicy aggregateEmitPolicy(Environment environment) {
+        return Binder.get(environment)
+                .bind("quotes.aggregates.emit", AggregateEmitPolicy.class)
+                .orElseGet(AggregateEmitPolicy::new);
     }
 }
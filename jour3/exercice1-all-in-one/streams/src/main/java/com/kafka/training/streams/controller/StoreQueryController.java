@@ -0,0 +1,88 @@
+package com.kafka.training.streams.controller;
+
+import com.kafka.training.common.model.EnrichedQuote;
+import com.kafka.training.common.model.ProductPricing;
+import com.kafka.training.common.model.QuoteAggregate;
+import com.kafka.training.streams.service.InteractiveQueryService;
+import org.apache.kafka.streams.errors.InvalidStateStoreException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Lecture directe des state stores Kafka Streams (interactive queries),
+ * sans passer par Kafka Connect et Redis
+ */
+@RestController
+@RequestMapping("/api/store")
+public class StoreQueryController {
+
+    private static final Logger log = LoggerFactory.getLogger(StoreQueryController.class);
+
+    private static final Duration DEFAULT_AGGREGATE_RANGE = Duration.ofHours(24);
+
+    private final InteractiveQueryService queryService;
+
+    public StoreQueryController(InteractiveQueryService queryService) {
+        this.queryService = queryService;
+    }
+
+    /**
+     * Récupère un devis enrichi par son ID
+     * GET /api/store/quotes/{quoteId}
+     */
+    @GetMapping("/quotes/{quoteId}")
+    public ResponseEntity<EnrichedQuote> getQuote(
+            @PathVariable String quoteId,
+            @RequestHeader(value = InteractiveQueryService.FORWARDED_HEADER, defaultValue = "false") boolean forwarded) {
+        return queryService.findQuote(quoteId, forwarded)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Récupère le prix courant d'un produit
+     * GET /api/store/pricing/{productCode}
+     */
+    @GetMapping("/pricing/{productCode}")
+    public ResponseEntity<ProductPricing> getPricing(
+            @PathVariable String productCode,
+            @RequestHeader(value = InteractiveQueryService.FORWARDED_HEADER, defaultValue = "false") boolean forwarded) {
+        return queryService.findPricing(productCode, forwarded)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Récupère les agrégats horaires d'un client (par défaut : dernières 24h)
+     * GET /api/store/aggregates/{customerId}?from=&to= (epoch millis)
+     */
+    @GetMapping("/aggregates/{customerId}")
+    public ResponseEntity<List<QuoteAggregate>> getAggregates(
+            @PathVariable String customerId,
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Long to,
+            @RequestHeader(value = InteractiveQueryService.FORWARDED_HEADER, defaultValue = "false") boolean forwarded) {
+        Instant end = to != null ? Instant.ofEpochMilli(to) : Instant.now();
+        Instant start = from != null ? Instant.ofEpochMilli(from) : end.minus(DEFAULT_AGGREGATE_RANGE);
+        if (start.isAfter(end)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(queryService.findAggregates(customerId, start, end, forwarded));
+    }
+
+    /**
+     * Store pas encore prêt (démarrage, rebalance) ou instance propriétaire injoignable
+     */
+    @ExceptionHandler(InvalidStateStoreException.class)
+    public ResponseEntity<Void> handleStoreUnavailable(InvalidStateStoreException e) {
+        log.warn("State store unavailable: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+    }
+}
@@ -0,0 +1,174 @@
+package com.kafka.training.streams.service;
+
+import com.kafka.training.common.model.EnrichedQuote;
+import com.kafka.training.common.model.ProductPricing;
+import com.kafka.training.common.model.QuoteAggregate;
+import com.kafka.training.streams.topology.PricingJoinMode;
+import com.kafka.training.streams.topology.QuoteStreamTopology;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.KeyQueryMetadata;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StoreQueryParameters;
+import org.apache.kafka.streams.errors.InvalidStateStoreException;
+import org.apache.kafka.streams.state.HostInfo;
+import org.apache.kafka.streams.state.QueryableStoreType;
+import org.apache.kafka.streams.state.QueryableStoreTypes;
+import org.apache.kafka.streams.state.ReadOnlyKeyValueStore;
+import org.apache.kafka.streams.state.ReadOnlyWindowStore;
+import org.apache.kafka.streams.state.WindowStoreIterator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.kafka.config.StreamsBuilderFactoryBean;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Interactive queries sur les state stores de QuoteStreamTopology
+ *
+ * Chaque clé appartient à une seule instance (celle qui possède la partition).
+ * queryMetadataForKey indique laquelle : si c'est l'instance locale, on lit
+ * directement le store RocksDB, sinon la requête est relayée en HTTP vers
+ * l'instance propriétaire (application.server).
+ * Exception : en mode GLOBAL, le store des prix est répliqué sur chaque instance.
+ */
+@Service
+public class InteractiveQueryService {
+
+    private static final Logger log = LoggerFactory.getLogger(InteractiveQueryService.class);
+
+    /**
+     * Header posé sur les requêtes relayées : l'instance cible répond en local, sans relayer à nouveau
+     */
+    public static final String FORWARDED_HEADER = "X-Store-Forwarded";
+
+    private final StreamsBuilderFactoryBean streamsBuilderFactoryBean;
+    private final RestTemplate restTemplate;
+    private final HostInfo localHost;
+    private final PricingJoinMode pricingJoinMode;
+
+    public InteractiveQueryService(StreamsBuilderFactoryBean streamsBuilderFactoryBean,
+                                   RestTemplateBuilder restTemplateBuilder,
+                                   @Value("${quotes.interactive-queries.application-server}") String applicationServer,
+                                   @Value("${quotes.interactive-queries.remote-timeout-ms:2000}") long remoteTimeoutMs,
+                                   @Value("${quotes.pricing-join:GLOBAL}") PricingJoinMode pricingJoinMode) {
+        this.streamsBuilderFactoryBean = streamsBuilderFactoryBean;
+        this.restTemplate = restTemplateBuilder
+                .setConnectTimeout(Duration.ofMillis(remoteTimeoutMs))
+                .setReadTimeout(Duration.ofMillis(remoteTimeoutMs))
+                .build();
+        this.localHost = HostInfo.buildFromEndpoint(applicationServer);
+        this.pricingJoinMode = pricingJoinMode;
+    }
+
+    /**
+     * Dernier état d'un devis enrichi (store enriched-quotes-store)
+     */
+    public Optional<EnrichedQuote> findQuote(String quoteId, boolean forwarded) {
+        HostInfo owner = ownerOf(QuoteStreamTopology.ENRICHED_QUOTES_STORE, quoteId, forwarded);
+        if (!isLocal(owner)) {
+            return Optional.ofNullable(fetchRemote(owner, "/api/store/quotes/" + quoteId, EnrichedQuote.class));
+        }
+        ReadOnlyKeyValueStore<String, EnrichedQuote> store =
+                store(QuoteStreamTopology.ENRICHED_QUOTES_STORE, QueryableStoreTypes.keyValueStore());
+        return Optional.ofNullable(store.get(quoteId));
+    }
+
+    /**
+     * Prix courant d'un produit (store product-pricing-store)
+     */
+    public Optional<ProductPricing> findPricing(String productCode, boolean forwarded) {
+        // GlobalKTable : copie complète locale, pas de propriétaire à chercher
+        boolean replicated = pricingJoinMode == PricingJoinMode.GLOBAL;
+        HostInfo owner = ownerOf(QuoteStreamTopology.PRODUCT_PRICING_STORE, productCode, forwarded || replicated);
+        if (!isLocal(owner)) {
+            return Optional.ofNullable(fetchRemote(owner, "/api/store/pricing/" + productCode, ProductPricing.class));
+        }
+        ReadOnlyKeyValueStore<String, ProductPricing> store =
+                store(QuoteStreamTopology.PRODUCT_PRICING_STORE, QueryableStoreTypes.keyValueStore());
+        return Optional.ofNullable(store.get(productCode));
+    }
+
+    /**
+     * Agrégats horaires d'un client dont la fenêtre démarre entre from et to (store quote-aggregates-store)
+     */
+    public List<QuoteAggregate> findAggregates(String customerId, Instant from, Instant to, boolean forwarded) {
+        HostInfo owner = ownerOf(QuoteStreamTopology.QUOTE_AGGREGATES_STORE, customerId, forwarded);
+        if (!isLocal(owner)) {
+            String path = "/api/store/aggregates/" + customerId
+                    + "?from=" + from.toEpochMilli() + "&to=" + to.toEpochMilli();
+            QuoteAggregate[] aggregates = fetchRemote(owner, path, QuoteAggregate[].class);
+            return aggregates != null ? Arrays.asList(aggregates) : Collections.emptyList();
+        }
+
+        ReadOnlyWindowStore<String, QuoteAggregate> store =
+                store(QuoteStreamTopology.QUOTE_AGGREGATES_STORE, QueryableStoreTypes.windowStore());
+        List<QuoteAggregate> aggregates = new ArrayList<>();
+        try (WindowStoreIterator<QuoteAggregate> iterator = store.fetch(customerId, from, to)) {
+            while (iterator.hasNext()) {
+                KeyValue<Long, QuoteAggregate> entry = iterator.next();
+                QuoteAggregate aggregate = entry.value;
+                // Les bornes de fenêtre ne sont pas stockées dans la valeur
+                aggregate.setWindowStart(entry.key);
+                aggregate.setWindowEnd(entry.key + QuoteStreamTopology.AGGREGATE_WINDOW.toMillis());
+                aggregates.add(aggregate);
+            }
+        }
+        return aggregates;
+    }
+
+    private HostInfo ownerOf(String storeName, String key, boolean forwarded) {
+        if (forwarded) {
+            // Requête déjà relayée : répondre en local, même si les métadonnées ont changé entre-temps
+            return localHost;
+        }
+        KeyQueryMetadata metadata = kafkaStreams()
+                .queryMetadataForKey(storeName, key, Serdes.String().serializer());
+        if (metadata == null || KeyQueryMetadata.NOT_AVAILABLE.equals(metadata)) {
+            throw new InvalidStateStoreException("Metadata not available for store " + storeName);
+        }
+        return metadata.activeHost();
+    }
+
+    private boolean isLocal(HostInfo host) {
+        return localHost.equals(host);
+    }
+
+    private <T> T store(String storeName, QueryableStoreType<T> storeType) {
+        return kafkaStreams().store(StoreQueryParameters.fromNameAndType(storeName, storeType));
+    }
+
+    private KafkaStreams kafkaStreams() {
+        KafkaStreams kafkaStreams = streamsBuilderFactoryBean.getKafkaStreams();
+        if (kafkaStreams == null || kafkaStreams.state() != KafkaStreams.State.RUNNING) {
+            throw new InvalidStateStoreException("KafkaStreams not running");
+        }
+        return kafkaStreams;
+    }
+
+    private <T> T fetchRemote(HostInfo host, String path, Class<T> type) {
+        String url = "http://" + host.host() + ":" + host.port() + path;
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(FORWARDED_HEADER, "true");
+        try {
+            log.debug("Forwarding store query to {}", url);
+            return restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), type).getBody();
+        } catch (HttpClientErrorException.NotFound e) {
+            return null;
+        } catch (RestClientException e) {
+            log.error("Error querying remote instance {}: {}", host, e.getMessage());
+            throw new InvalidStateStoreException("Remote instance " + host + " unavailable");
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.kafka.training.streams.topology;
+
+import java.time.Duration;
+
+/**
+ * Politique d'émission des agrégats horaires vers quote-aggregates (quotes.aggregates.emit)
+ */
+public class AggregateEmitPolicy {
+
+    public enum Mode {
+        /**
+         * Chaque mise à jour de l'agrégat, dédoublonnée seulement par le cache d'enregistrements
+         * (au plus un envoi par client et par commit.interval.ms)
+         */
+        UPDATES,
+
+        /**
+         * Un seul résultat final par client et par fenêtre, à la fermeture de la fenêtre
+         * (suppress untilWindowCloses, buffer borné à maxBufferBytes)
+         */
+        WINDOW_CLOSE,
+
+        /**
+         * Dernière valeur de chaque agrégat modifié, émise toutes les flushInterval
+         * (punctuator en temps réel, buffer borné à maxBufferEntries)
+         */
+        PERIODIC
+    }
+
+    private Mode mode = Mode.UPDATES;
+    private Duration flushInterval = Duration.ofSeconds(10);
+    private long maxBufferBytes = 16L * 1024 * 1024;
+    private int maxBufferEntries = 10_000;
+
+    public AggregateEmitPolicy() {
+    }
+
+    public AggregateEmitPolicy(Mode mode) {
+        this.mode = mode;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    public void setFlushInterval(Duration flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    public long getMaxBufferBytes() {
+        return maxBufferBytes;
+    }
+
+    public void setMaxBufferBytes(long maxBufferBytes) {
+        this.maxBufferBytes = maxBufferBytes;
+    }
+
+    public int getMaxBufferEntries() {
+        return maxBufferEntries;
+    }
+
+    public void setMaxBufferEntries(int maxBufferEntries) {
+        this.maxBufferEntries = maxBufferEntries;
+    }
+
+    @Override
+    public String toString() {
+        return switch (mode) {
+            case UPDATES -> "UPDATES";
+            case WINDOW_CLOSE -> "WINDOW_CLOSE (buffer " + maxBufferBytes + " bytes)";
+            case PERIODIC -> "PERIODIC (every " + flushInterval + ", buffer " + maxBufferEntries + " entries)";
+        };
+    }
+}
@@ -0,0 +1,98 @@
+package com.kafka.training.streams.topology;
+
+import com.kafka.training.common.model.QuoteAggregate;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.kstream.Windowed;
+import org.apache.kafka.streams.processor.Cancellable;
+import org.apache.kafka.streams.processor.PunctuationType;
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.KeyValueStore;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Émission périodique des agrégats fenêtrés (mode PERIODIC)
+ *
+ * Chaque mise à jour remplace la précédente dans un buffer (state store en mémoire,
+ * sauvegardé dans un changelog) indexé par client et début de fenêtre. Toutes les
+ * flushInterval (temps réel), la dernière valeur de chaque entrée est émise puis le
+ * buffer est vidé. Au-delà de maxEntries entrées, le buffer est vidé immédiatement.
+ */
+public class PeriodicAggregateEmitter implements Processor<Windowed<String>, QuoteAggregate, String, QuoteAggregate> {
+
+    private final String bufferStoreName;
+    private final Duration flushInterval;
+    private final long windowSizeMs;
+    private final int maxEntries;
+
+    private ProcessorContext<String, QuoteAggregate> context;
+    private KeyValueStore<String, QuoteAggregate> buffer;
+    private Cancellable punctuator;
+    private int pending;
+
+    public PeriodicAggregateEmitter(String bufferStoreName, Duration flushInterval, long windowSizeMs, int maxEntries) {
+        this.bufferStoreName = bufferStoreName;
+        this.flushInterval = flushInterval;
+        this.windowSizeMs = windowSizeMs;
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    public void init(ProcessorContext<String, QuoteAggregate> context) {
+        this.context = context;
+        this.buffer = context.getStateStore(bufferStoreName);
+        // Entrées restaurées depuis le changelog (redémarrage, migration de tâche)
+        this.pending = (int) buffer.approximateNumEntries();
+        this.punctuator = context.schedule(flushInterval, PunctuationType.WALL_CLOCK_TIME, timestamp -> flush());
+    }
+
+    @Override
+    public void process(Record<Windowed<String>, QuoteAggregate> record) {
+        QuoteAggregate aggregate = record.value();
+        if (aggregate == null) {
+            return;
+        }
+        long windowStart = record.key().window().start();
+        aggregate.setWindowStart(windowStart);
+        aggregate.setWindowEnd(windowStart + windowSizeMs);
+
+        String bufferKey = record.key().key() + "@" + windowStart;
+        if (buffer.get(bufferKey) == null) {
+            pending++;
+        }
+        buffer.put(bufferKey, aggregate);
+        if (pending >= maxEntries) {
+            flush();
+        }
+    }
+
+    private void flush() {
+        if (pending == 0) {
+            return;
+        }
+        List<String> emitted = new ArrayList<>(pending);
+        long timestamp = context.currentStreamTimeMs();
+        try (KeyValueIterator<String, QuoteAggregate> iterator = buffer.all()) {
+            while (iterator.hasNext()) {
+                KeyValue<String, QuoteAggregate> entry = iterator.next();
+                QuoteAggregate aggregate = entry.value;
+                context.forward(new Record<>(aggregate.getCustomerId(), aggregate, Math.max(0, timestamp)));
+                emitted.add(entry.key);
+            }
+        }
+        emitted.forEach(buffer::delete);
+        pending = 0;
+    }
+
+    @Override
+    public void close() {
+        if (punctuator != null) {
+            punctuator.cancel();
+        }
+    }
+}
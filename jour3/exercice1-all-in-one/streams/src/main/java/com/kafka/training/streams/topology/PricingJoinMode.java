@@ -0,0 +1,19 @@
+package com.kafka.training.streams.topology;
+
+/**
+ * Stratégie de jointure des devis validés avec le référentiel de prix (quotes.pricing-join)
+ */
+public enum PricingJoinMode {
+
+    /**
+     * KTable partitionnée : re-clé par productCode (topic de repartition), jointure,
+     * puis re-clé par quoteId
+     */
+    REPARTITION,
+
+    /**
+     * GlobalKTable répliquée sur chaque instance : jointure sur le productCode extrait
+     * de la valeur, sans changer la clé ni passer par le broker
+     */
+    GLOBAL
+}
@@ -5,14 +5,21 @@ import com.kafka.training.common.model.Quote;
 import com.kafka.training.common.model.QuoteStatus;
 import com.kafka.training.common.model.ProductPricing;
 import com.kafka.training.common.model.QuoteAggregate;
-import com.kafka.training.common.serde.JsonSerde;
+import com.kafka.training.common.serde.TopicSerdes;
+import com.kafka.training.streams.profiling.TopologyProfiler;
+import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.utils.Bytes;
 import org.apache.kafka.streams.KeyValue;
 import org.apache.kafka.streams.StreamsBuilder;
 import org.apache.kafka.streams.kstream.*;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.kafka.streams.state.Stores;
+import org.apache.kafka.streams.state.WindowStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
@@ -23,140 +30,290 @@ import java.time.Duration;
  * Cette topologie :
  * 1. Lit les devis depuis devis-events
  * 2. Filtre uniquement les devis validés
- * 3. Enrichit avec les prix des produits (KTable)
+ * 3. Enrichit avec les prix des produits (GlobalKTable ou KTable, voir PricingJoinMode)
  * 4. Calcule la prime finale avec taxes
  * 5. Écrit dans validated-quotes et all-quotes
+ * 6. Agrège les devis par client sur des fenêtres d'une heure, émises vers quote-aggregates
+ *    selon AggregateEmitPolicy
+ *
+ * Les state stores nommés ci-dessous sont interrogeables via les interactive queries
+ * (voir InteractiveQueryService). Les nœuds profilés sont nommés explicitement : ces noms
+ * apparaissent dans Topology.describe() et dans la vue /api/topology/profile (TopologyProfiler).
  */
 @Component
 public class QuoteStreamTopology {
 
     private static final Logger log = LoggerFactory.getLogger(QuoteStreamTopology.class);
 
-    private final JsonSerde<Quote> quoteSerde;
-    private final JsonSerde<ProductPricing> productPricingSerde;
-    private final JsonSerde<EnrichedQuote> enrichedQuoteSerde;
-    private final JsonSerde<QuoteAggregate> quoteAggregateSerde;
-
-    public QuoteStreamTopology(JsonSerde<Quote> quoteSerde,
-                               JsonSerde<ProductPricing> productPricingSerde,
-                               JsonSerde<EnrichedQuote> enrichedQuoteSerde,
-                               JsonSerde<QuoteAggregate> quoteAggregateSerde) {
-        this.quoteSerde = quoteSerde;
-        this.productPricingSerde = productPricingSerde;
-        this.enrichedQuoteSerde = enrichedQuoteSerde;
-        this.quoteAggregateSerde = quoteAggregateSerde;
+    public static final String PRODUCT_PRICING_STORE = "product-pricing-store";
+    public static final String ENRICHED_QUOTES_STORE = "enriched-quotes-store";
+    public static final String QUOTE_AGGREGATES_STORE = "quote-aggregates-store";
+    public static final String AGGREGATE_EMIT_BUFFER_STORE = "quote-aggregates-emit-buffer";
+
+    public static final Duration AGGREGATE_WINDOW = Duration.ofHours(1);
+
+    private final TopicSerdes topicSerdes;
+    private final PricingJoinMode pricingJoinMode;
+    private final AggregateEmitPolicy aggregateEmitPolicy;
+    private final Duration aggregateRetention;
+    private final TopologyProfiler profiler;
+
+    public QuoteStreamTopology(TopicSerdes topicSerdes,
+                               @Value("${quotes.pricing-join:GLOBAL}") PricingJoinMode pricingJoinMode,
+                               AggregateEmitPolicy aggregateEmitPolicy,
+                               @Value("${quotes.aggregates.retention:24h}") Duration aggregateRetention,
+                               TopologyProfiler profiler) {
+        this.topicSerdes = topicSerdes;
+        this.pricingJoinMode = pricingJoinMode;
+        this.aggregateEmitPolicy = aggregateEmitPolicy;
+        this.aggregateRetention = aggregateRetention;
+        this.profiler = profiler;
+    }
+
+    public PricingJoinMode getPricingJoinMode() {
+        return pricingJoinMode;
     }
 
     @Autowired
     public void buildPipeline(StreamsBuilder streamsBuilder) {
-        log.info("Building Kafka Streams topology for insurance quotes...");
+        log.info("Building Kafka Streams topology for insurance quotes (pricing join: {}, aggregates: {})...",
+                pricingJoinMode, aggregateEmitPolicy);
+
+        // Serdes choisis par topic (quotes.serde.*), y compris topics internes et state stores
+        Serde<Quote> quoteSerde = topicSerdes.forTopic("devis-events", Quote.class);
+        Serde<Quote> validatedQuoteSerde = topicSerdes.forTopic("validated-quotes", Quote.class);
+        Serde<Quote> quotesByProductSerde = topicSerdes.forTopic("quotes-by-product", Quote.class);
+        Serde<Quote> quotesByCustomerSerde = topicSerdes.forTopic("quotes-by-customer", Quote.class);
+        Serde<ProductPricing> productPricingSerde = topicSerdes.forTopic("product-pricing", ProductPricing.class);
+        Serde<EnrichedQuote> enrichedQuoteSerde = topicSerdes.forTopic("all-quotes", EnrichedQuote.class);
+        Serde<QuoteAggregate> aggregateStoreSerde = topicSerdes.forTopic(QUOTE_AGGREGATES_STORE, QuoteAggregate.class);
+        Serde<QuoteAggregate> emitBufferSerde = topicSerdes.forTopic(AGGREGATE_EMIT_BUFFER_STORE, QuoteAggregate.class);
+        Serde<QuoteAggregate> quoteAggregateSerde = topicSerdes.forTopic("quote-aggregates", QuoteAggregate.class);
 
         // ========================================
         // 1. STREAM DES DEVIS
         // ========================================
         KStream<String, Quote> quotesStream = streamsBuilder
-                .stream("devis-events", Consumed.with(Serdes.String(), quoteSerde))
+                .stream("devis-events", Consumed.with(Serdes.String(), profiler.serde("quotes-source", quoteSerde))
+                        .withName("quotes-source"))
                 .peek((key, value) -> log.debug("Received quote: quoteId={}, status={}",
                         key, value.getStatus()));
 
         // ========================================
-        // 2. KTABLE DES PRIX PRODUITS (Compacté)
-        // ========================================
-        KTable<String, ProductPricing> productPricingTable = streamsBuilder
-                .table("product-pricing",
-                        Consumed.with(Serdes.String(), productPricingSerde),
-                        Materialized.as("product-pricing-store"));
-
-        // ========================================
-        // 3. FILTRE : DEVIS VALIDÉS UNIQUEMENT
+        // 2. FILTRE : DEVIS VALIDÉS UNIQUEMENT
         // ========================================
         KStream<String, Quote> validatedQuotesStream = quotesStream
-                .filter((key, quote) -> QuoteStatus.VALIDATED.equals(quote.getStatus()))
+                .filter(profiler.predicate("validated-quotes-filter",
+                                (key, quote) -> QuoteStatus.VALIDATED.equals(quote.getStatus())),
+                        Named.as("validated-quotes-filter"))
                 .peek((key, quote) -> log.info("Validated quote: quoteId={}, customerId={}, productCode={}",
                         quote.getQuoteId(), quote.getCustomerId(), quote.getProductCode()));
 
         // Écrire les devis validés dans un topic dédié
-        validatedQuotesStream.to("validated-quotes", Produced.with(Serdes.String(), quoteSerde));
+        validatedQuotesStream.to("validated-quotes",
+                Produced.with(Serdes.String(), profiler.serde("validated-quotes-sink", validatedQuoteSerde))
+                        .withName("validated-quotes-sink"));
 
         // ========================================
-        // 4. JOINTURE : Enrichir avec les prix
+        // 3. JOINTURE : Enrichir avec les prix (topic compacté product-pricing)
         // ========================================
-        // Re-keyer par productCode pour la jointure
-        KStream<String, Quote> quotesKeyedByProduct = validatedQuotesStream
-                .selectKey((key, quote) -> quote.getProductCode());
-
-        KStream<String, EnrichedQuote> enrichedQuotesStream = quotesKeyedByProduct.join(
-                productPricingTable,
-                (quote, pricing) -> {
-                    EnrichedQuote enriched = new EnrichedQuote();
-                    enriched.setQuoteId(quote.getQuoteId());
-                    enriched.setCustomerId(quote.getCustomerId());
-                    enriched.setStatus(quote.getStatus());
-                    enriched.setProductCode(quote.getProductCode());
-                    enriched.setBasePremium(quote.getBasePremium());
-                    enriched.setCreatedAt(quote.getCreatedAt());
-                    enriched.setUpdatedAt(quote.getUpdatedAt());
-
-                    // Enrichissement depuis ProductPricing
-                    enriched.setProductName(pricing.getProductName());
-                    enriched.setBasePrice(pricing.getBasePrice());
-                    enriched.setTaxRate(pricing.getTaxRate());
-
-                    // Calcul de la prime finale avec taxes
-                    double finalPremium = quote.getBasePremium() * (1 + pricing.getTaxRate());
-                    enriched.setFinalPremium(finalPremium);
-
-                    log.info("Enriched quote: quoteId={}, productName={}, basePremium={}, finalPremium={}",
-                            enriched.getQuoteId(), enriched.getProductName(),
-                            enriched.getBasePremium(), enriched.getFinalPremium());
-
-                    return enriched;
-                },
-                Joined.with(Serdes.String(), quoteSerde, productPricingSerde)
-        );
-
-        // Re-keyer par quoteId après jointure
-        KStream<String, EnrichedQuote> enrichedQuotesKeyedById = enrichedQuotesStream
-                .selectKey((key, quote) -> quote.getQuoteId());
+        KStream<String, EnrichedQuote> enrichedQuotesKeyedById = switch (pricingJoinMode) {
+            case GLOBAL -> joinWithGlobalPricing(streamsBuilder, validatedQuotesStream, productPricingSerde);
+            case REPARTITION -> joinWithPartitionedPricing(streamsBuilder, validatedQuotesStream,
+                    quotesByProductSerde, productPricingSerde);
+        };
 
         // ========================================
-        // 5. ÉCRITURE DANS ALL-QUOTES (pour Redis)
+        // 4. ÉCRITURE DANS ALL-QUOTES (pour Redis)
         // ========================================
-        enrichedQuotesKeyedById.to("all-quotes", Produced.with(Serdes.String(), enrichedQuoteSerde));
+        enrichedQuotesKeyedById.to("all-quotes",
+                Produced.with(Serdes.String(), profiler.serde("all-quotes-sink", enrichedQuoteSerde))
+                        .withName("all-quotes-sink"));
+
+        // Relecture de all-quotes en KTable : dernier état de chaque devis, par quoteId.
+        // Avec l'optimisation de topologie, all-quotes sert directement de changelog.
+        streamsBuilder.table("all-quotes",
+                // Source non profilée : table() utilise aussi ce serde pour le store (relecture des
+                // anciennes valeurs), ses mesures ne seraient pas celles de la source
+                Consumed.with(Serdes.String(), enrichedQuoteSerde).withName("all-quotes-table"),
+                Materialized.<String, EnrichedQuote, KeyValueStore<Bytes, byte[]>>as(ENRICHED_QUOTES_STORE)
+                        .withKeySerde(Serdes.String())
+                        .withValueSerde(enrichedQuoteSerde));
 
         // ========================================
-        // 6. AGRÉGATIONS PAR CLIENT
+        // 5. AGRÉGATIONS PAR CLIENT
         // ========================================
         // Fenêtre tumbling de 1 heure pour stats par client
         KTable<Windowed<String>, QuoteAggregate> quoteAggregateTable = validatedQuotesStream
-                .selectKey((key, quote) -> quote.getCustomerId())
-                .groupByKey(Grouped.with(Serdes.String(), quoteSerde))
-                .windowedBy(TimeWindows.ofSizeWithNoGrace(Duration.ofHours(1)))
+                .selectKey(profiler.keyValueMapper("quotes-by-customer-key",
+                                (key, quote) -> quote.getCustomerId()),
+                        Named.as("quotes-by-customer-key"))
+                .groupByKey(Grouped.with(Serdes.String(), quotesByCustomerSerde))
+                .windowedBy(TimeWindows.ofSizeWithNoGrace(AGGREGATE_WINDOW))
                 .aggregate(
                         () -> new QuoteAggregate(null, null, null, 0L, 0.0),
-                        (customerId, quote, aggregate) -> {
-                            aggregate.setCustomerId(customerId);
-                            aggregate.setCount(aggregate.getCount() + 1);
-                            aggregate.setTotalPremium(aggregate.getTotalPremium() +
-                                    (quote.getBasePremium() != null ? quote.getBasePremium() : 0.0));
-                            return aggregate;
-                        },
-                        Materialized.with(Serdes.String(), quoteAggregateSerde)
+                        profiler.aggregator("customer-aggregate", QuoteStreamTopology::aggregate),
+                        Named.as("customer-aggregate"),
+                        // Fenêtres conservées (et interrogeables) pendant aggregateRetention, puis
+                        // supprimées segment par segment (au moins la taille de la fenêtre)
+                        Materialized.<String, QuoteAggregate, WindowStore<Bytes, byte[]>>as(QUOTE_AGGREGATES_STORE)
+                                .withKeySerde(Serdes.String())
+                                .withValueSerde(aggregateStoreSerde)
+                                .withRetention(aggregateRetention)
                 );
 
+        // Le store reste interrogeable à jour (interactive queries) quelle que soit la politique d'émission
+        KStream<String, QuoteAggregate> emittedAggregates = switch (aggregateEmitPolicy.getMode()) {
+            case UPDATES -> withWindowBounds(quoteAggregateTable.toStream());
+            case WINDOW_CLOSE -> withWindowBounds(quoteAggregateTable
+                    .suppress(Suppressed.untilWindowCloses(
+                                    Suppressed.BufferConfig.maxBytes(aggregateEmitPolicy.getMaxBufferBytes())
+                                            .shutDownWhenFull())
+                            .withName("quote-aggregates-final"))
+                    .toStream());
+            case PERIODIC -> emitPeriodically(streamsBuilder, quoteAggregateTable, emitBufferSerde);
+        };
+
         // Logger les agrégations
-        quoteAggregateTable.toStream()
-                .map((windowed, aggregate) -> {
-                    aggregate.setWindowStart(windowed.window().startTime().toEpochMilli());
-                    aggregate.setWindowEnd(windowed.window().endTime().toEpochMilli());
-                    log.info("Quote aggregate: customerId={}, count={}, totalPremium={}, window=[{}-{}]",
-                            aggregate.getCustomerId(), aggregate.getCount(),
-                            aggregate.getTotalPremium(), aggregate.getWindowStart(),
-                            aggregate.getWindowEnd());
-                    return new KeyValue<>(windowed.key(), aggregate);
-                })
-                .to("quote-aggregates", Produced.with(Serdes.String(), quoteAggregateSerde));
+        emittedAggregates
+                .peek((customerId, aggregate) ->
+                        log.info("Quote aggregate: customerId={}, count={}, totalPremium={}, window=[{}-{}]",
+                                aggregate.getCustomerId(), aggregate.getCount(),
+                                aggregate.getTotalPremium(), aggregate.getWindowStart(),
+                                aggregate.getWindowEnd()))
+                .to("quote-aggregates",
+                        Produced.with(Serdes.String(), profiler.serde("quote-aggregates-sink", quoteAggregateSerde))
+                                .withName("quote-aggregates-sink"));
 
         log.info("Kafka Streams topology for insurance quotes built successfully");
     }
+
+    /**
+     * Re-clé par client, avec les bornes de fenêtre dans la valeur (elles ne sont pas stockées)
+     */
+    private static KStream<String, QuoteAggregate> withWindowBounds(
+            KStream<Windowed<String>, QuoteAggregate> aggregates) {
+        return aggregates.map((windowed, aggregate) -> {
+            aggregate.setWindowStart(windowed.window().startTime().toEpochMilli());
+            aggregate.setWindowEnd(windowed.window().endTime().toEpochMilli());
+            return new KeyValue<>(windowed.key(), aggregate);
+        });
+    }
+
+    /**
+     * Buffer des dernières valeurs (store en mémoire avec changelog) vidé par un punctuator,
+     * voir PeriodicAggregateEmitter
+     */
+    private KStream<String, QuoteAggregate> emitPeriodically(StreamsBuilder streamsBuilder,
+                                                             KTable<Windowed<String>, QuoteAggregate> aggregates,
+                                                             Serde<QuoteAggregate> emitBufferSerde) {
+        // Cache : une seule écriture changelog par entrée et par commit
+        streamsBuilder.addStateStore(Stores.keyValueStoreBuilder(
+                        Stores.inMemoryKeyValueStore(AGGREGATE_EMIT_BUFFER_STORE),
+                        Serdes.String(),
+                        emitBufferSerde)
+                .withCachingEnabled());
+
+        Duration flushInterval = aggregateEmitPolicy.getFlushInterval();
+        int maxEntries = aggregateEmitPolicy.getMaxBufferEntries();
+        return aggregates.toStream().process(
+                () -> new PeriodicAggregateEmitter(AGGREGATE_EMIT_BUFFER_STORE, flushInterval,
+                        AGGREGATE_WINDOW.toMillis(), maxEntries),
+                Named.as("quote-aggregates-periodic-emit"),
+                AGGREGATE_EMIT_BUFFER_STORE);
+    }
+
+    /**
+     * Référentiel de prix répliqué en entier sur chaque instance (quelques produits) :
+     * la clé productCode est extraite de la valeur au moment de la jointure, les devis
+     * gardent leur clé quoteId et restent dans la même sous-topologie.
+     * La GlobalKTable est chargée intégralement au démarrage, avant tout traitement.
+     */
+    private KStream<String, EnrichedQuote> joinWithGlobalPricing(StreamsBuilder streamsBuilder,
+                                                                 KStream<String, Quote> validatedQuotes,
+                                                                 Serde<ProductPricing> productPricingSerde) {
+        GlobalKTable<String, ProductPricing> productPricingTable = streamsBuilder
+                .globalTable("product-pricing",
+                        Consumed.with(Serdes.String(), productPricingSerde),
+                        Materialized.as(PRODUCT_PRICING_STORE));
+
+        return validatedQuotes.join(
+                productPricingTable,
+                (quoteId, quote) -> quote.getProductCode(),
+                profiler.valueJoiner("pricing-join", QuoteStreamTopology::enrich),
+                Named.as("pricing-join")
+        );
+    }
+
+    /**
+     * Référentiel de prix partitionné : chaque devis validé est re-clé par productCode et
+     * passe par un topic de repartition (écriture + relecture sur le broker), puis re-clé
+     * par quoteId après la jointure
+     */
+    private KStream<String, EnrichedQuote> joinWithPartitionedPricing(StreamsBuilder streamsBuilder,
+                                                                      KStream<String, Quote> validatedQuotes,
+                                                                      Serde<Quote> quotesByProductSerde,
+                                                                      Serde<ProductPricing> productPricingSerde) {
+        KTable<String, ProductPricing> productPricingTable = streamsBuilder
+                .table("product-pricing",
+                        Consumed.with(Serdes.String(), productPricingSerde),
+                        Materialized.as(PRODUCT_PRICING_STORE));
+
+        // Re-keyer par productCode pour la jointure
+        KStream<String, Quote> quotesKeyedByProduct = validatedQuotes
+                .selectKey(profiler.keyValueMapper("quotes-by-product-key",
+                                (key, quote) -> quote.getProductCode()),
+                        Named.as("quotes-by-product-key"));
+
+        KStream<String, EnrichedQuote> enrichedQuotesStream = quotesKeyedByProduct.join(
+                productPricingTable,
+                profiler.valueJoiner("pricing-join", QuoteStreamTopology::enrich),
+                Joined.with(Serdes.String(), quotesByProductSerde, productPricingSerde, "pricing-join")
+        );
+
+        // Re-keyer par quoteId après jointure
+        return enrichedQuotesStream.selectKey(
+                profiler.keyValueMapper("quotes-by-id-key", (key, quote) -> quote.getQuoteId()),
+                Named.as("quotes-by-id-key"));
+    }
+
+    /**
+     * Jointure devis / prix produit : calcul de la prime finale avec taxes
+     */
+    public static EnrichedQuote enrich(Quote quote, ProductPricing pricing) {
+        EnrichedQuote enriched = new EnrichedQuote();
+        enriched.setQuoteId(quote.getQuoteId());
+        enriched.setCustomerId(quote.getCustomerId());
+        enriched.setStatus(quote.getStatus());
+        enriched.setProductCode(quote.getProductCode());
+        enriched.setBasePremium(quote.getBasePremium());
+        enriched.setCreatedAt(quote.getCreatedAt());
+        enriched.setUpdatedAt(quote.getUpdatedAt());
+
+        // Enrichissement depuis ProductPricing
+        enriched.setProductName(pricing.getProductName());
+        enriched.setBasePrice(pricing.getBasePrice());
+        enriched.setTaxRate(pricing.getTaxRate());
+
+        // Calcul de la prime finale avec taxes
+        double finalPremium = quote.getBasePremium() * (1 + pricing.getTaxRate());
+        enriched.setFinalPremium(finalPremium);
+
+        log.info("Enriched quote: quoteId={}, productName={}, basePremium={}, finalPremium={}",
+                enriched.getQuoteId(), enriched.getProductName(),
+                enriched.getBasePremium(), enriched.getFinalPremium());
+
+        return enriched;
+    }
+
+    /**
+     * Agrégation par client : nombre de devis et total des primes de base
+     */
+    public static QuoteAggregate aggregate(String customerId, Quote quote, QuoteAggregate aggregate) {
+        aggregate.setCustomerId(customerId);
+        aggregate.setCount(aggregate.getCount() + 1);
+        aggregate.setTotalPremium(aggregate.getTotalPremium() +
+                (quote.getBasePremium() != null ? quote.getBasePremium() : 0.0));
+        return aggregate;
+    }
 }